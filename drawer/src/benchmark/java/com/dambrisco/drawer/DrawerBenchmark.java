@@ -0,0 +1,253 @@
+package com.dambrisco.drawer;
+
+import android.content.Context;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Locale;
+
+/**
+ * Benchmarks for the drawer's hot paths, run with {@code ./gradlew :drawer:testDebug -Pbenchmark}. Time and
+ * allocation per operation are written to {@code build/reports/benchmark/DrawerBenchmark.txt}. Allocations come from
+ * the JVM's per-thread counters where it has them and are reported as n/a elsewhere. Times under Robolectric are only
+ * comparable with each other, not with a device.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DrawerBenchmark {
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 2000;
+    private static final int CONSTRUCTION_ITERATIONS = 50;
+    private static final int LARGE_TREE_VIEWS = 1000;
+    private static final int CONTENT_HEIGHT = 400;
+    private static final File REPORT = new File("build/reports/benchmark/DrawerBenchmark.txt");
+
+    private static final ArrayList<String> sResults = new ArrayList<String>();
+    private static Method sAllocatedBytes;
+
+    private Context mContext;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+    }
+
+    @AfterClass
+    public static void writeReport() throws IOException {
+        REPORT.getParentFile().mkdirs();
+        Writer writer = new FileWriter(REPORT);
+        try {
+            for (String result : sResults) {
+                writer.write(result);
+                writer.write('\n');
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    public void setTranslationPercent() {
+        final Drawer drawer = createLaidOutDrawer(createContent());
+        run("setTranslationPercent", ITERATIONS, new Operation() {
+            private int mStep;
+
+            @Override
+            public void run() {
+                drawer.setTranslationPercent((mStep++ % 100) / 100f);
+            }
+        });
+    }
+
+    @Test
+    public void handleDrag() {
+        final Drawer drawer = createLaidOutDrawer(createContent());
+        final View handle = DrawerTestSupport.handle(drawer);
+        final long downTime = 1000;
+        DrawerTestSupport.touch(handle, MotionEvent.ACTION_DOWN, 10, downTime, downTime);
+
+        // One continuous drag, moving the finger down the content and back up at 8 ms per event
+        run("handle drag, per ACTION_MOVE", ITERATIONS, new Operation() {
+            private int mStep;
+
+            @Override
+            public void run() {
+                mStep++;
+                int position = mStep % 100;
+                float y = 10 + (position < 50 ? position : 100 - position) * 6;
+                DrawerTestSupport.touch(handle, MotionEvent.ACTION_MOVE, y, downTime, downTime + mStep * 8);
+            }
+        });
+    }
+
+    @Test
+    public void openAndClose() {
+        final Drawer drawer = createLaidOutDrawer(createContent());
+        run("open(false) / close(false)", ITERATIONS, new Operation() {
+            private boolean mOpen;
+
+            @Override
+            public void run() {
+                mOpen = !mOpen;
+                if (mOpen) {
+                    drawer.open(false, true);
+                } else {
+                    drawer.close(false, true);
+                }
+            }
+        });
+        run("open() / close(), retargeting the running slide", ITERATIONS, new Operation() {
+            private boolean mOpen;
+
+            @Override
+            public void run() {
+                mOpen = !mOpen;
+                if (mOpen) {
+                    drawer.open();
+                } else {
+                    drawer.close();
+                }
+            }
+        });
+    }
+
+    @Test
+    public void contentBlockingOnLargeTree() {
+        final Drawer drawer = createLaidOutDrawer(createLargeTree());
+        // bindState blocks and unblocks the content as the drawer closes and opens
+        run("setContentBlocked, " + LARGE_TREE_VIEWS + " views", ITERATIONS, new Operation() {
+            private boolean mOpen;
+
+            @Override
+            public void run() {
+                mOpen = !mOpen;
+                drawer.bindState(mOpen ? Drawer.DrawerState.OPEN : Drawer.DrawerState.CLOSED);
+            }
+        });
+    }
+
+    @Test
+    public void constructionForEachAttributeCombination() {
+        String[] labels = { null, "Open", "@android:drawable/ic_menu_add" };
+        String[] contentModes = { "scroll", "direct" };
+        String[] renderModes = { "normal", "hardwareLayer", "snapshot" };
+        String[] initialStates = { "closed", "open" };
+
+        for (String label : labels) {
+            for (String contentMode : contentModes) {
+                for (String renderMode : renderModes) {
+                    for (String initialState : initialStates) {
+                        Robolectric.AttributeSetBuilder builder = Robolectric.buildAttributeSet()
+                                .addAttribute(R.attr.drawerContentMode, contentMode)
+                                .addAttribute(R.attr.drawerRenderMode, renderMode)
+                                .addAttribute(R.attr.drawerInitialState, initialState);
+                        if (label != null) {
+                            builder.addAttribute(R.attr.drawerOpen, label);
+                            builder.addAttribute(R.attr.drawerClosed, label);
+                        }
+                        final AttributeSet attrs = builder.build();
+                        String name = String.format(Locale.US, "construct label=%s content=%s render=%s initial=%s",
+                                label == null ? "none" : label.startsWith("@") ? "drawable" : "text", contentMode,
+                                renderMode, initialState);
+                        run(name, CONSTRUCTION_ITERATIONS, new Operation() {
+                            @Override
+                            public void run() {
+                                new Drawer(mContext, attrs);
+                            }
+                        });
+                    }
+                }
+            }
+        }
+    }
+
+    private Drawer createLaidOutDrawer(View content) {
+        Drawer drawer = new Drawer(mContext);
+        drawer.addView(content, new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT));
+        DrawerTestSupport.layout(drawer);
+        return drawer;
+    }
+
+    private View createContent() {
+        // The drawer's ScrollView measures its child without a height limit, so only a minimum height sticks
+        View content = new View(mContext);
+        content.setMinimumHeight(CONTENT_HEIGHT);
+        return content;
+    }
+
+    private View createLargeTree() {
+        LinearLayout root = new LinearLayout(mContext);
+        root.setOrientation(LinearLayout.VERTICAL);
+        root.setMinimumHeight(CONTENT_HEIGHT);
+        LinearLayout row = null;
+        for (int i = 0; i < LARGE_TREE_VIEWS; i++) {
+            if (i % 10 == 0) {
+                row = new LinearLayout(mContext);
+                root.addView(row);
+            }
+            View view = new View(mContext);
+            view.setFocusable(true);
+            row.addView(view);
+        }
+        return root;
+    }
+
+    private static void run(String name, int iterations, Operation operation) {
+        for (int i = 0; i < Math.min(WARMUP, iterations); i++) {
+            operation.run();
+        }
+
+        long bytesBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytesAfter = allocatedBytes();
+
+        String bytes = bytesBefore < 0 ? "n/a" : String.valueOf((bytesAfter - bytesBefore) / iterations);
+        sResults.add(String.format(Locale.US, "%-76s %12.0f ns/op %10s B/op", name, (double) elapsed / iterations,
+                bytes));
+    }
+
+    /**
+     * @return Bytes allocated by the current thread so far, or -1 if the JVM does not count them
+     */
+    private static long allocatedBytes() {
+        try {
+            if (sAllocatedBytes == null) {
+                // Looked up by name, so the benchmark still builds and runs on JVMs without this extension
+                Class<?> threadBean = Class.forName("com.sun.management.ThreadMXBean");
+                sAllocatedBytes = threadBean.getMethod("getThreadAllocatedBytes", long.class);
+            }
+            return (Long) sAllocatedBytes.invoke(ManagementFactory.getThreadMXBean(),
+                    Thread.currentThread().getId());
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private interface Operation {
+        void run();
+    }
+}
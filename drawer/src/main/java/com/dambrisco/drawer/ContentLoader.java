@@ -0,0 +1,116 @@
+package com.dambrisco.drawer;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates a drawer's content once, either on a shared background thread or inline on the UI thread, whichever
+ * gets to it first
+ */
+final class ContentLoader extends FutureTask<View> {
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+    private static final Executor EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    runnable.run();
+                }
+            }, "DrawerContentLoader");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private final Runnable mOnLoaded;
+    private boolean mFailed = false;
+
+    /**
+     * @param onLoaded Posted to the UI thread once the content has been created
+     */
+    ContentLoader(final Drawer.ContentFactory factory, final Context context, final ViewGroup parent,
+            Runnable onLoaded) {
+        super(new Callable<View>() {
+            @Override
+            public View call() throws Exception {
+                return factory.createContent(context, parent);
+            }
+        });
+        mOnLoaded = onLoaded;
+    }
+
+    /**
+     * Starts creating the content on the background thread
+     */
+    void prefetch() {
+        EXECUTOR.execute(this);
+    }
+
+    /**
+     * Returns the content, creating it on the calling thread if the background thread has not started on it yet
+     * and waiting for it otherwise. Whatever the factory threw is thrown again here, just as if it had been called
+     * on the calling thread.
+     *
+     * @return The content, or null if the calling thread was interrupted while waiting for it
+     */
+    View load() {
+        run();
+        try {
+            return get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException("Drawer content could not be created", cause);
+        }
+    }
+
+    /**
+     * Stops the load and drops a completion that has already been posted, so nothing keeps the drawer referenced
+     */
+    void cancelLoad() {
+        cancel(false);
+        MAIN_HANDLER.removeCallbacks(mOnLoaded);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void setException(Throwable t) {
+        // Called on the thread that ran the factory, before done()
+        mFailed = true;
+        super.setException(t);
+    }
+
+    /**
+     * Hands finished content over to the UI thread. A failure is not handed over; it is thrown by {@link #load()}
+     * when the drawer next needs its content.
+     */
+    @Override
+    protected void done() {
+        if (!isCancelled() && !mFailed) {
+            MAIN_HANDLER.post(mOnLoaded);
+        }
+    }
+}
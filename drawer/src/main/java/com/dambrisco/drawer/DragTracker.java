@@ -0,0 +1,165 @@
+package com.dambrisco.drawer;
+
+import android.content.Context;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.ViewConfiguration;
+
+import java.util.ArrayList;
+
+/**
+ * Tracks a drag on the drawer handle in screen coordinates. The handle moves with the finger, so its local
+ * coordinates do not reflect the real motion. A drag starts as soon as the gesture is clearly vertical, well inside
+ * the regular touch slop, and positions can optionally be predicted a few milliseconds ahead so the drawer stays
+ * under the finger.
+ * <p>
+ * Trackers are pooled across drawers and only held for the length of a gesture, so a screen full of drawers shares
+ * one or two of them, along with their {@link VelocityTracker}s. Only used from the UI thread.
+ */
+final class DragTracker {
+    /**
+     * Fraction of the system touch slop after which a clearly vertical gesture becomes a drag
+     */
+    private static final float DRAG_SLOP_FRACTION = 0.33f;
+    /**
+     * Idle trackers kept for reuse, enough for a drag on two drawers at once
+     */
+    private static final int POOL_SIZE = 2;
+    private static final ArrayList<DragTracker> sPool = new ArrayList<DragTracker>(POOL_SIZE);
+
+    private float mDragSlop;
+    private float mMaximumVelocity;
+    private float mMinimumVelocity;
+    private VelocityTracker mVelocityTracker;
+    private int mPredictionMillis = 0;
+    private boolean mDragging = false;
+    private float mDownX;
+    private float mDownY;
+    private float mAnchorY;
+    private float mLastY;
+    private float mLastDelta;
+
+    private DragTracker() {
+    }
+
+    /**
+     * @return An idle tracker from the pool, or a new one if every pooled tracker is in use, set up for the context's
+     *         display and with prediction disabled
+     */
+    static DragTracker obtain(Context context) {
+        DragTracker tracker = sPool.isEmpty() ? new DragTracker() : sPool.remove(sPool.size() - 1);
+        // Pooled trackers may come from a drawer on another display, so the thresholds are always taken afresh
+        ViewConfiguration configuration = ViewConfiguration.get(context);
+        tracker.mDragSlop = configuration.getScaledTouchSlop() * DRAG_SLOP_FRACTION;
+        tracker.mMaximumVelocity = configuration.getScaledMaximumFlingVelocity();
+        tracker.mMinimumVelocity = configuration.getScaledMinimumFlingVelocity();
+        return tracker;
+    }
+
+    /**
+     * @param predictionMillis How far ahead of the latest sample to place the drag, 0 to disable prediction
+     */
+    void setPredictionMillis(int predictionMillis) {
+        mPredictionMillis = Math.max(0, predictionMillis);
+    }
+
+    void onDown(MotionEvent event) {
+        if (mVelocityTracker == null) {
+            mVelocityTracker = VelocityTracker.obtain();
+        } else {
+            mVelocityTracker.clear();
+        }
+        addMovement(event);
+
+        mDragging = false;
+        mDownX = event.getRawX();
+        mDownY = event.getRawY();
+        mLastY = mDownY;
+        mLastDelta = 0;
+    }
+
+    /**
+     * @return True if the gesture is a drag, including when this event is the one that started it
+     */
+    boolean onMove(MotionEvent event) {
+        addMovement(event);
+
+        float y = event.getRawY();
+        mLastDelta = y - mLastY;
+        mLastY = y;
+        if (!mDragging) {
+            float dx = Math.abs(event.getRawX() - mDownX);
+            float dy = Math.abs(y - mDownY);
+            if (dy > mDragSlop && dy > dx) {
+                // The drag is anchored where it starts so the drawer does not jump by the slop distance
+                mDragging = true;
+                mAnchorY = y;
+            }
+        }
+        return mDragging;
+    }
+
+    void onUp(MotionEvent event) {
+        addMovement(event);
+    }
+
+    /**
+     * @return How far the finger has moved since the drag started in pixels, positive down, including prediction
+     */
+    float getDragOffset() {
+        float offset = mLastY - mAnchorY;
+        if (mPredictionMillis > 0 && mVelocityTracker != null) {
+            mVelocityTracker.computeCurrentVelocity(1000, mMaximumVelocity);
+            offset += mVelocityTracker.getYVelocity() * mPredictionMillis / 1000f;
+        }
+        return offset;
+    }
+
+    /**
+     * @return Vertical movement of the latest event in pixels, positive down
+     */
+    float getLastDelta() {
+        return mLastDelta;
+    }
+
+    /**
+     * @return Vertical velocity in pixels per second, positive down, or 0 if it is too slow to count as a fling
+     */
+    float computeVelocity() {
+        if (mVelocityTracker == null) {
+            return 0;
+        }
+
+        mVelocityTracker.computeCurrentVelocity(1000, mMaximumVelocity);
+        float velocity = mVelocityTracker.getYVelocity();
+        return Math.abs(velocity) < mMinimumVelocity ? 0 : velocity;
+    }
+
+    /**
+     * Returns the tracker to the pool; it must not be used afterwards
+     */
+    void recycle() {
+        mDragging = false;
+        mPredictionMillis = 0;
+        if (sPool.size() < POOL_SIZE) {
+            if (mVelocityTracker != null) {
+                mVelocityTracker.clear();
+            }
+            sPool.add(this);
+        } else if (mVelocityTracker != null) {
+            mVelocityTracker.recycle();
+            mVelocityTracker = null;
+        }
+    }
+
+    /**
+     * Adds the event, including its historical samples, in screen coordinates
+     */
+    private void addMovement(MotionEvent event) {
+        float offsetX = event.getRawX() - event.getX();
+        float offsetY = event.getRawY() - event.getY();
+        event.offsetLocation(offsetX, offsetY);
+        mVelocityTracker.addMovement(event);
+        event.offsetLocation(-offsetX, -offsetY);
+    }
+}
@@ -1,21 +1,29 @@
 package com.dambrisco.drawer;
 
 import android.animation.Animator;
-import android.animation.ObjectAnimator;
+import android.annotation.TargetApi;
+import android.animation.ValueAnimator;
+import android.content.ComponentCallbacks2;
 import android.content.Context;
-import android.content.res.Resources;
+import android.content.res.Configuration;
 import android.content.res.TypedArray;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
 import android.graphics.PorterDuff;
+import android.graphics.Rect;
 import android.graphics.drawable.Drawable;
 import android.os.Build;
+import android.os.Parcel;
+import android.os.Parcelable;
 import android.support.annotation.NonNull;
 import android.util.AttributeSet;
+import android.util.SparseArray;
 import android.util.TypedValue;
 import android.view.*;
 import android.widget.*;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * Drawer layout
@@ -24,28 +32,97 @@ import java.util.List;
  * @since 2015-03-16
  */
 public class Drawer extends LinearLayout {
-    private LinearLayout mWrapper;
-    private ScrollView mContent;
-    private FrameLayout mHandle;
-    private View mOpenHandle;
-    private View mClosedHandle;
+    private static final DrawerListener[] NO_LISTENERS = new DrawerListener[0];
+    // Overlaps the handle onto the content to prevent a thin gray line from showing up because of slightly
+    // incorrect draw
+    private static final int HANDLE_OVERLAP = 2;
+
+    private ViewGroup mContent;
+    private ContentMode mContentMode = ContentMode.SCROLL;
+    private int mContentHeight;
+    private DrawerHandle mHandle;
     private Drawable mHandleBackground;
     private float mMaxTranslation;
-    private float mTranslationStart;
-    private float mVelocity;
+    private float mPeek;
+    private float mTranslationPercent = 1;
+    private float mReleaseVelocity;
+    private DragTracker mDragTracker;
+    private int mDragPrediction;
+    private float mDragStartPercent;
     private int mSlideDuration;
+    private RenderMode mRenderMode = RenderMode.NORMAL;
+    private boolean mSliding = false;
+    private Bitmap mSnapshot;
+    private Canvas mSnapshotCanvas;
+    private boolean mSnapshotStale = false;
+    private boolean mSnapshotLeftEnd = false;
+    private boolean mApplyingTranslation = false;
     private DrawerState mDrawerState = DrawerState.OPEN;
     private boolean mDragging = false;
-    private GestureDetector mGestureDetector;
-    private List<DrawerListener> mDrawerListeners;
+    private boolean mContentBlocked = false;
+    private boolean mBlockingTouch = false;
+    private boolean mNestedFlung = false;
+    private DrawerListener[] mDrawerListeners = NO_LISTENERS;
+    private boolean mCoalescePercentUpdates = false;
+    private float mMinPercentDelta = 0;
+    private float mPendingPercent;
+    private float mDispatchedPercent = Float.NaN;
+    private boolean mPercentDispatchScheduled = false;
+    // Choreographer only exists from API 16; a plain post stands in for the frame callback before that
+    private Choreographer.FrameCallback mPercentFrameCallback;
+    private Choreographer.FrameCallback mMetricsFrameCallback;
+    private final Runnable mPercentDispatch = new Runnable() {
+        @Override
+        public void run() {
+            flushPercentDispatch();
+        }
+    };
+    // Delivers coalesced updates in the same frame they were made in, after the animation callbacks that drive slides
+    // and before anything is drawn
+    private final ViewTreeObserver.OnPreDrawListener mPercentFlush = new ViewTreeObserver.OnPreDrawListener() {
+        @Override
+        public boolean onPreDraw() {
+            flushPercentDispatch();
+            return true;
+        }
+    };
+    private ValueAnimator mAnimator;
+    private final DrawerSpring mSpring = new DrawerSpring();
+    private DrawerGroup mGroup;
+    private boolean mGroupSliding = false;
+    private long mGroupSlideStart;
+    private ContentFactory mContentFactory;
+    private ContentLoader mContentLoader;
+    private final Runnable mContentLoaded = new Runnable() {
+        @Override
+        public void run() {
+            ensureContent();
+        }
+    };
+    private boolean mEvictionEnabled = false;
+    private long mEvictionDelay = 0;
+    private SparseArray<Parcelable> mEvictedState;
+    private int mEvictedHeight = 0;
+    private ComponentCallbacks2 mTrimCallbacks;
+    private boolean mAttached = false;
+    private boolean mTrimCallbacksRegistered = false;
+    private final Runnable mEvictContent = new Runnable() {
+        @Override
+        public void run() {
+            evictContent();
+        }
+    };
+    private DrawerMetrics mMetrics;
+    private boolean mInitiallyOpen;
+    private DrawerState mAnimationEndState;
+    private boolean mAnimationTriggerListeners;
+    private boolean mAnimationCanceled;
 
     /**
      * {@inheritDoc}
      */
     public Drawer(Context context) {
-        super(context);
-        TypedArray array = context.obtainStyledAttributes(new int[0]);
-        setup(context, array);
+        this(context, null);
     }
 
     /**
@@ -113,427 +190,1320 @@ public class Drawer extends LinearLayout {
         mContent.addView(child, index, params);
     }
 
-    @SuppressWarnings("deprecation")
-    private void setup(Context context, TypedArray array) {
-        mDrawerListeners = new ArrayList<>();
-        mWrapper = new LinearLayout(context);
-        mContent = new ScrollView(context);
-        mHandle = new FrameLayout(context);
-        LinearLayout handleWrapper = new LinearLayout(context);
-        LinearLayout handleContainer = new LinearLayout(context);
-
-        mContent.setVerticalScrollBarEnabled(false);
-        mContent.setHorizontalScrollBarEnabled(false);
-
-        final int handleId, initialState, openColor, closedColor;
-        Drawable openDrawable, closedDrawable;
-        String openString, closedString;
-        final float handleWidth, handleHeight, handleTextSize, peek;
-
-        try {
-            openDrawable = array.getDrawable(R.styleable.Drawer_drawerOpen);
-        } catch (Resources.NotFoundException e) {
-            openDrawable = null;
-        }
-        try {
-            closedDrawable = array.getDrawable(R.styleable.Drawer_drawerClosed);
-        } catch (Resources.NotFoundException e) {
-            closedDrawable = null;
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean onInterceptTouchEvent(MotionEvent ev) {
+        // The handle overlaps the bottom of the content, and touches there belong to the handle
+        if (mContentBlocked && ev.getActionMasked() == MotionEvent.ACTION_DOWN && isInContent(ev.getX(), ev.getY())
+                && !isOnHandle(ev.getX(), ev.getY())) {
+            mBlockingTouch = true;
+            return true;
         }
-        try {
-            openString = array.getString(R.styleable.Drawer_drawerOpen);
-        } catch (Resources.NotFoundException e) {
-            openString = null;
+        return super.onInterceptTouchEvent(ev);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean onTouchEvent(@NonNull MotionEvent event) {
+        if (event.getActionMasked() == MotionEvent.ACTION_DOWN && isInHandleRow(event.getY())) {
+            // The row the handle sits in swallows touches so they do not fall through to views behind the drawer
+            mBlockingTouch = true;
         }
-        try {
-            closedString = array.getString(R.styleable.Drawer_drawerClosed);
-        } catch (Resources.NotFoundException e) {
-            closedString = null;
+        if (mBlockingTouch) {
+            int action = event.getActionMasked();
+            if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+                mBlockingTouch = false;
+            }
+            return true;
         }
+        return super.onTouchEvent(event);
+    }
 
-        openColor = array.getColor(R.styleable.Drawer_drawerOpenColor, 0x000000);
-        closedColor = array.getColor(R.styleable.Drawer_drawerClosedColor, 0x000000);
-
-        mHandleBackground = array.getDrawable(R.styleable.Drawer_drawerHandle);
-
-        handleWidth = array.getDimension(R.styleable.Drawer_drawerHandleWidth, -2);
-        handleHeight = array.getDimension(R.styleable.Drawer_drawerHandleHeight, -2);
-        handleTextSize = array.getDimension(R.styleable.Drawer_drawerHandleTextSize, 10);
-        handleId = array.getResourceId(R.styleable.Drawer_drawerHandleId, 0);
-        peek = array.getDimension(R.styleable.Drawer_drawerPeek, 0);
-        mSlideDuration = array.getInt(R.styleable.Drawer_drawerSlideDuration, 250);
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        boolean traced = mMetrics != null;
+        if (traced) {
+            mMetrics.onMeasure();
+            DrawerMetrics.beginSection("Drawer:onMeasure");
+        }
 
-        initialState = array.getInt(R.styleable.Drawer_drawerInitialState, 0);
+        int paddingWidth = getPaddingLeft() + getPaddingRight();
+        int paddingHeight = getPaddingTop() + getPaddingBottom();
 
-        mOpenHandle = new View(context);
-        if (openDrawable != null) {
-            openDrawable.setColorFilter(openColor, PorterDuff.Mode.DST);
-            ImageView openView = new ImageView(context);
-            openView.setImageDrawable(openDrawable);
-            mOpenHandle = openView;
-        } else if (openString != null) {
-            TextView openView = new TextView(context);
-            openView.setTextColor(openColor);
-            openView.setText(openString);
-            openView.setTextSize(TypedValue.COMPLEX_UNIT_PX, handleTextSize);
-            mOpenHandle = openView;
+        // The content is offered the available height as an upper bound only, so it keeps its natural height
+        int availableHeightSpec = heightMeasureSpec;
+        if (MeasureSpec.getMode(heightMeasureSpec) != MeasureSpec.UNSPECIFIED) {
+            availableHeightSpec = MeasureSpec.makeMeasureSpec(MeasureSpec.getSize(heightMeasureSpec),
+                    MeasureSpec.AT_MOST);
         }
 
-        mClosedHandle = new View(context);
-        if (closedDrawable != null) {
-            closedDrawable.setColorFilter(closedColor, PorterDuff.Mode.DST);
-            ImageView closedView = new ImageView(context);
-            closedView.setImageDrawable(closedDrawable);
-            mClosedHandle = closedView;
-        } else if (closedString != null) {
-            TextView closedView = new TextView(context);
-            closedView.setTextColor(closedColor);
-            closedView.setText(closedString);
-            closedView.setTextSize(TypedValue.COMPLEX_UNIT_PX, handleTextSize);
-            mClosedHandle = closedView;
-        }
-
-        MarginLayoutParams openHandleParams = new FrameLayout.LayoutParams(FrameLayout.LayoutParams.WRAP_CONTENT,
-                FrameLayout.LayoutParams.WRAP_CONTENT, Gravity.CENTER);
-        openHandleParams.topMargin = (int) handleTextSize / 5 * -1;
-        MarginLayoutParams closedHandleParams = new FrameLayout.LayoutParams(FrameLayout.LayoutParams.WRAP_CONTENT,
-                FrameLayout.LayoutParams.WRAP_CONTENT, Gravity.CENTER);
-        closedHandleParams.topMargin = (int) handleTextSize / 5 * -1;
-        mOpenHandle.setLayoutParams(openHandleParams);
-        mClosedHandle.setLayoutParams(closedHandleParams);
-
-        LayoutParams handleParams = new LayoutParams((int) handleWidth, (int) handleHeight);
-        handleParams.gravity = Gravity.CENTER_HORIZONTAL;
-        mHandle.setLayoutParams(handleParams);
-        if (Build.VERSION.SDK_INT >= 16) {
-            mHandle.setBackground(mHandleBackground);
-        } else {
-            mHandle.setBackgroundDrawable(mHandleBackground);
+        // The handle is measured first so that the content can never squeeze it out
+        ViewGroup.LayoutParams handleParams = mHandle.getLayoutParams();
+        mHandle.measure(getChildMeasureSpec(widthMeasureSpec, paddingWidth, handleParams.width),
+                getChildMeasureSpec(availableHeightSpec, paddingHeight, handleParams.height));
+        int handleHeight = Math.max(0, mHandle.getMeasuredHeight() - HANDLE_OVERLAP);
+
+        ViewGroup.LayoutParams contentParams = mContent.getLayoutParams();
+        int contentHeightSpec = getChildMeasureSpec(availableHeightSpec, paddingHeight + handleHeight,
+                contentParams.height);
+        if (mEvictedHeight > 0 && mContent.getChildCount() == 0) {
+            // Evicted content keeps its space, so the drawer neither resizes nor moves until it is rebuilt
+            contentHeightSpec = MeasureSpec.makeMeasureSpec(mEvictedHeight, MeasureSpec.EXACTLY);
         }
-        mHandle.addView(mOpenHandle);
-        mHandle.addView(mClosedHandle);
-        mHandle.setId(handleId);
-        mHandle.setOnTouchListener(new OnTouchListener() {
-            @Override
-            public boolean onTouch(View v, MotionEvent event) {
-                if (mGestureDetector.onTouchEvent(event)) {
-                    return true;
-                }
+        mContent.measure(getChildMeasureSpec(widthMeasureSpec, paddingWidth, contentParams.width), contentHeightSpec);
 
-                switch (event.getAction()) {
-                    case MotionEvent.ACTION_UP:
-                        mDragging = false;
-                        mHandle.setPressed(false);
-                        mTranslationStart = (int) mWrapper.getTranslationY();
-                        if (mTranslationStart > mMaxTranslation / -2) {
-                            open();
-                        } else {
-                            close();
-                        }
-                        break;
-                }
-                return false;
-            }
-        });
+        int width = Math.max(mContent.getMeasuredWidth(), mHandle.getMeasuredWidth()) + paddingWidth;
+        int height = mContent.getMeasuredHeight() + handleHeight + paddingHeight;
+        setMeasuredDimension(resolveSize(Math.max(width, getSuggestedMinimumWidth()), widthMeasureSpec),
+                resolveSize(Math.max(height, getSuggestedMinimumHeight()), heightMeasureSpec));
 
-        handleContainer.setOrientation(LinearLayout.HORIZONTAL);
-        handleContainer.addView(mHandle);
+        if (traced) {
+            DrawerMetrics.endSection();
+        }
+    }
 
-        LayoutParams handleWrapperParams = new LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
-                ViewGroup.LayoutParams.WRAP_CONTENT);
-        handleWrapperParams.gravity = Gravity.CENTER_HORIZONTAL;
-        // Prevents thin gray line from showing up because of slightly incorrect draw
-        handleWrapperParams.topMargin = -2;
-        handleWrapper.setLayoutParams(handleWrapperParams);
-        handleWrapper.setOrientation(VERTICAL);
-        handleWrapper.addView(handleContainer);
-        handleWrapper.setClickable(true);
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        boolean traced = mMetrics != null;
+        if (traced) {
+            mMetrics.onLayout();
+            DrawerMetrics.beginSection("Drawer:onLayout");
+        }
 
-        mWrapper.setOrientation(VERTICAL);
-        mWrapper.addView(mContent, -1,
-                new LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
-        mWrapper.addView(handleWrapper, -1, handleWrapper.getLayoutParams());
+        // The content asked for a layout, so it has changed and a snapshot taken before would be stale
+        releaseSnapshot();
 
-        super.addView(mWrapper, -1,
-                new LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+        int left = getPaddingLeft();
+        int top = getPaddingTop();
+        mContent.layout(left, top, left + mContent.getMeasuredWidth(), top + mContent.getMeasuredHeight());
 
-        getViewTreeObserver().addOnGlobalLayoutListener(new ViewTreeObserver.OnGlobalLayoutListener() {
-            @Override
-            @SuppressWarnings("deprecation")
-            public void onGlobalLayout() {
-                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
-                    getViewTreeObserver().removeOnGlobalLayoutListener(this);
-                } else {
-                    getViewTreeObserver().removeGlobalOnLayoutListener(this);
-                }
-                mMaxTranslation = mContent.getHeight() - peek;
-                if (initialState == 0) {
-                    close(false, false);
-                } else {
-                    open(false, false);
-                }
-            }
-        });
+        // The handle sits at the start of its row, where the original horizontal handle container put it
+        int handleTop = mContent.getBottom() - HANDLE_OVERLAP;
+        mHandle.layout(left, handleTop, left + mHandle.getMeasuredWidth(),
+                handleTop + mHandle.getMeasuredHeight());
 
-        mGestureDetector = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
-            private float mTotalDelta = 0;
+        // Content size changes keep the current open/closed position, re-clamped to the new height. Slides are
+        // driven by percent, so one in progress simply continues against the new bounds.
+        float maxTranslation = Math.max(0, mContent.getMeasuredHeight() - mPeek);
+        if (maxTranslation != mMaxTranslation) {
+            mMaxTranslation = maxTranslation;
+            applyTranslation();
+        }
 
-            @Override
-            public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX, float distanceY) {
-                mDragging = true;
-                mVelocity = 0;
-                mTotalDelta += distanceY;
-                if (distanceY < 0) {
-                    mDrawerState = DrawerState.CLOSING;
-                } else {
-                    mDrawerState = DrawerState.OPENING;
-                }
-                float newPosition = mWrapper.getTranslationY() - mTotalDelta;
-                if (newPosition > 0) {
-                    newPosition = 0;
-                } else if (newPosition < -1 * mMaxTranslation) {
-                    newPosition = -1 * mMaxTranslation;
-                }
-                toggleEnabled(true, mContent);
-                setTranslationPercent(1 - (-1 * newPosition / mMaxTranslation));
-                mWrapper.requestLayout();
-                return true;
-            }
+        if (traced) {
+            DrawerMetrics.endSection();
+        }
+    }
 
-            @Override
-            public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
-                mDragging = false;
-                mVelocity = velocityY;
-                mHandle.setPressed(false);
-                mTranslationStart = (int) mWrapper.getTranslationY();
-                switch (mDrawerState) {
-                    case OPENING:
-                        open();
-                        break;
-                    case CLOSING:
-                        close();
-                        break;
-                }
-                return true;
-            }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean drawChild(@NonNull Canvas canvas, View child, long drawingTime) {
+        if (child == mContent && mSnapshotStale) {
+            // The content changed after the snapshot was taken, so it is drawn live from here on
+            dropSnapshot();
+        }
+        if (child != mContent || (mContent.getTranslationY() == 0 && mSnapshot == null)) {
+            return super.drawChild(canvas, child, drawingTime);
+        }
 
-            @Override
-            public boolean onSingleTapUp(MotionEvent e) {
-                if (!mDragging) {
-                    toggle();
-                }
-                mDragging = false;
-                mHandle.setPressed(false);
-                return true;
-            }
+        // Only the part of the content below the drawer's top edge can be seen, and the drawer's bounds already clip
+        // it there. Once it is tucked away completely it is neither drawn nor recorded until it slides back into view.
+        if (isContentHidden(mContent.getTranslationY())) {
+            return false;
+        }
 
-            @Override
-            public boolean onDown(MotionEvent e) {
-                mHandle.setPressed(true);
-                return true;
-            }
-        });
+        if (mSnapshot != null) {
+            canvas.drawBitmap(mSnapshot, mContent.getLeft(), mContent.getTop() + mContent.getTranslationY(), null);
+            return false;
+        }
+        return super.drawChild(canvas, child, drawingTime);
+    }
 
-        array.recycle();
+    private boolean isContentHidden(float translation) {
+        return mContent.getBottom() + translation <= 0;
     }
 
     /**
-     * Sets the open handle to the provided view
+     * {@inheritDoc}
      */
-    @SuppressWarnings({ "unused", "deprecation" })
-    public void setOpenHandle(Drawable d) {
-        if (Build.VERSION.SDK_INT >= 16) {
-            mHandle.setBackground(mHandleBackground);
-        } else {
-            mHandle.setBackgroundDrawable(mHandleBackground);
+    @Override
+    public ViewParent invalidateChildInParent(int[] location, Rect dirty) {
+        // Scrolls and redraws anywhere in the content arrive here at the content's position
+        if (location[0] == mContent.getLeft() && location[1] == mContent.getTop() && markSnapshotStale()) {
+            // Invalidating the drawer right away would clobber the invalidation pass in progress
+            postInvalidate();
         }
-        mHandleBackground = d;
-        invalidate();
-        requestLayout();
+        return super.invalidateChildInParent(location, dirty);
     }
 
     /**
-     * Sets the open handle to the provided view
+     * {@inheritDoc}
      */
-    @SuppressWarnings("unused")
-    public void setOpenHandle(View view) {
-        mHandle.removeView(mOpenHandle);
-        mOpenHandle = view;
-        mHandle.addView(mOpenHandle);
-        invalidate();
-        requestLayout();
+    @Override
+    @TargetApi(Build.VERSION_CODES.O)
+    public void onDescendantInvalidated(@NonNull View child, @NonNull View target) {
+        // From API 26, hardware accelerated windows report invalidations here instead of through
+        // invalidateChildInParent()
+        boolean stale = child == mContent && markSnapshotStale();
+        super.onDescendantInvalidated(child, target);
+        if (stale) {
+            // Only marked dirty by the call above, the drawer would keep drawing its recorded snapshot
+            invalidate();
+        }
     }
 
     /**
-     * Sets the closed handle to the provided view
+     * Notes that the content changed while its snapshot is sliding; the drawer's own translation updates are not
+     * content changes
+     *
+     * @return True if the snapshot has just become stale and the drawer needs to be redrawn
      */
-    @SuppressWarnings("unused")
-    public void setClosedHandle(View view) {
-        mHandle.removeView(mClosedHandle);
-        mClosedHandle = view;
-        mHandle.addView(mClosedHandle);
-        invalidate();
-        requestLayout();
+    private boolean markSnapshotStale() {
+        if (mSnapshot == null || mSnapshotStale || mApplyingTranslation) {
+            return false;
+        }
+        mSnapshotStale = true;
+        return true;
     }
 
     /**
-     * Gets the drawer state
-     *
-     * @return OPEN, CLOSED, OPENING, or CLOSING
+     * {@inheritDoc}
      */
-    @SuppressWarnings("unused")
-    public DrawerState getDrawerState() {
-        return mDrawerState;
+    @Override
+    public boolean onStartNestedScroll(View child, View target, int nestedScrollAxes) {
+        return (nestedScrollAxes & SCROLL_AXIS_VERTICAL) != 0 && child == mContent && !mContentBlocked
+                && mMaxTranslation > 0;
     }
 
     /**
-     * @return The slide duration in milliseconds
+     * {@inheritDoc}
      */
-    @SuppressWarnings("unused")
-    public int getSlideDuration() {
-        return mSlideDuration;
+    @Override
+    public void onNestedScrollAccepted(View child, View target, int axes) {
+        super.onNestedScrollAccepted(child, target, axes);
+        cancelSlide();
+        mNestedFlung = false;
     }
 
     /**
-     * Open the drawer
+     * {@inheritDoc}
      */
-    public void open() {
-        open(true, true);
+    @Override
+    public void onNestedPreScroll(View target, int dx, int dy, int[] consumed) {
+        // Once the drawer has started moving it takes the gesture first, in either direction, until fully open
+        if (mTranslationPercent < 1 && dy != 0) {
+            consumed[1] = nestedDragBy(dy);
+        }
     }
 
     /**
-     * Open the drawer
-     *
-     * @param animate          True to animate drawer, false to snap
-     * @param triggerListeners Determines whether or not the drawer state listeners are triggered
+     * {@inheritDoc}
      */
-    private void open(boolean animate, final boolean triggerListeners) {
-        if (mDrawerState == DrawerState.OPEN) {
-            return;
+    @Override
+    public void onNestedScroll(View target, int dxConsumed, int dyConsumed, int dxUnconsumed, int dyUnconsumed) {
+        // The content has reached its end, so the rest of the gesture closes the drawer
+        if (dyUnconsumed > 0) {
+            nestedDragBy(dyUnconsumed);
         }
+    }
 
-        mTranslationStart = (int) mWrapper.getTranslationY();
-        mVelocity = 0;
-
-        if (mDrawerListeners.size() > 0) {
-            for (DrawerListener listener : mDrawerListeners) {
-                listener.onOpen();
-            }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean onNestedPreFling(View target, float velocityX, float velocityY) {
+        if (!mDragging || mTranslationPercent >= 1) {
+            return false;
         }
 
-        toggleEnabled(true, mContent);
-        if (animate) {
-            changeDrawerState(DrawerState.OPENING, triggerListeners);
-            ObjectAnimator animator = new ObjectAnimator();
-            animator.addListener(new Animator.AnimatorListener() {
-                @Override
-                public void onAnimationStart(Animator animation) { }
-
-                @Override
-                public void onAnimationEnd(Animator animation) {
-                    changeDrawerState(DrawerState.OPEN, triggerListeners);
-                }
-
-                @Override
-                public void onAnimationCancel(Animator animation) { }
+        mNestedFlung = true;
+        release(-velocityY / mMaxTranslation);
+        return true;
+    }
 
-                @Override
-                public void onAnimationRepeat(Animator animation) { }
-            });
-            float translationPercent = 1 - (-1 * mTranslationStart / mMaxTranslation);
-            animator.setFloatValues(translationPercent, 1);
-            animator.setPropertyName("translationPercent");
-            if (translationPercent == 1) {
-                animator.setDuration(0);
-            } else {
-                animator.setDuration(getDuration(mSlideDuration));
-            }
-            animator.setTarget(this);
-            animator.start();
-        } else {
-            setTranslationPercent(1);
-            changeDrawerState(DrawerState.OPEN, triggerListeners);
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean onNestedFling(View target, float velocityX, float velocityY, boolean consumed) {
+        // A fling the content could not use because it is at its end carries over into closing the drawer
+        if (consumed || velocityY <= 0 || mContentBlocked) {
+            return false;
         }
+
+        mNestedFlung = true;
+        startDrag();
+        release(-velocityY / mMaxTranslation);
+        return true;
     }
 
     /**
-     * Close the drawer
+     * {@inheritDoc}
      */
-    public void close() {
-        close(true, true);
+    @Override
+    public void onStopNestedScroll(View target) {
+        super.onStopNestedScroll(target);
+        if (mDragging && !mNestedFlung) {
+            release(0);
+        }
     }
 
     /**
-     * Close the drawer
+     * Moves the drawer by a nested scroll delta
      *
-     * @param animate          True to animate drawer, false to snap
-     * @param triggerListeners Determines whether or not the drawer state listeners are triggered
+     * @param dy Scroll delta in pixels, positive towards closed
+     * @return The pixels consumed by moving the drawer
      */
-    public void close(boolean animate, final boolean triggerListeners) {
-        if (mDrawerState == DrawerState.CLOSED) {
-            return;
+    private int nestedDragBy(int dy) {
+        float translationPercent = Math.max(0, Math.min(1, mTranslationPercent - dy / mMaxTranslation));
+        if (translationPercent == mTranslationPercent) {
+            return 0;
         }
 
-        mTranslationStart = (int) mWrapper.getTranslationY();
-        mVelocity = 0;
+        if (!mDragging) {
+            startDrag();
+        }
+        int consumed = Math.round((mTranslationPercent - translationPercent) * mMaxTranslation);
+        mDrawerState = dy > 0 ? DrawerState.CLOSING : DrawerState.OPENING;
+        setTranslationPercent(translationPercent);
+        return consumed;
+    }
 
-        if (mDrawerListeners.size() > 0) {
-            for (DrawerListener listener : mDrawerListeners) {
-                listener.onClose();
-            }
+    @SuppressWarnings("deprecation")
+    private void setup(Context context, TypedArray array) {
+        mHandle = new DrawerHandle(context);
+
+        // A single animator is reused for every slide; open and close only retarget it
+        mAnimator = ValueAnimator.ofFloat(0, 1);
+        AnimatorCallbacks animatorCallbacks = new AnimatorCallbacks();
+        mAnimator.addUpdateListener(animatorCallbacks);
+        mAnimator.addListener(animatorCallbacks);
+
+        final int handleId, openColor, closedColor, contentLayout;
+        Drawable openDrawable = null, closedDrawable = null;
+        String openString = null, closedString = null;
+        final float handleWidth, handleHeight, handleTextSize;
+        final boolean contentAsync;
+
+        // Each label's type is checked once, so text is never decoded as a drawable or the other way around
+        if (isTextAttribute(array, R.styleable.Drawer_drawerOpen)) {
+            openString = array.getString(R.styleable.Drawer_drawerOpen);
+        } else if (array.hasValue(R.styleable.Drawer_drawerOpen)) {
+            openDrawable = array.getDrawable(R.styleable.Drawer_drawerOpen);
+        }
+        if (isTextAttribute(array, R.styleable.Drawer_drawerClosed)) {
+            closedString = array.getString(R.styleable.Drawer_drawerClosed);
+        } else if (array.hasValue(R.styleable.Drawer_drawerClosed)) {
+            closedDrawable = array.getDrawable(R.styleable.Drawer_drawerClosed);
         }
 
-        clearFocus();
+        openColor = array.getColor(R.styleable.Drawer_drawerOpenColor, 0x000000);
+        closedColor = array.getColor(R.styleable.Drawer_drawerClosedColor, 0x000000);
 
-        if (animate) {
-            changeDrawerState(DrawerState.CLOSING, triggerListeners);
-            ObjectAnimator animator = new ObjectAnimator();
-            animator.addListener(new Animator.AnimatorListener() {
-                @Override
-                public void onAnimationStart(Animator animation) { }
+        mHandleBackground = array.getDrawable(R.styleable.Drawer_drawerHandle);
 
-                @Override
-                public void onAnimationEnd(Animator animation) {
-                    changeDrawerState(DrawerState.CLOSED, triggerListeners);
-                    toggleEnabled(false, mContent);
-                }
+        handleWidth = array.getDimension(R.styleable.Drawer_drawerHandleWidth, -2);
+        handleHeight = array.getDimension(R.styleable.Drawer_drawerHandleHeight, -2);
+        handleTextSize = array.getDimension(R.styleable.Drawer_drawerHandleTextSize, 10);
+        handleId = array.getResourceId(R.styleable.Drawer_drawerHandleId, 0);
+        mPeek = array.getDimension(R.styleable.Drawer_drawerPeek, 0);
+        mSlideDuration = array.getInt(R.styleable.Drawer_drawerSlideDuration, 250);
+        mDragPrediction = array.getInt(R.styleable.Drawer_drawerDragPrediction, 0);
+        mRenderMode = RenderMode.values()[array.getInt(R.styleable.Drawer_drawerRenderMode, 0)];
 
-                @Override
-                public void onAnimationCancel(Animator animation) { }
+        mInitiallyOpen = array.getInt(R.styleable.Drawer_drawerInitialState, 0) == 1;
+        contentLayout = array.getResourceId(R.styleable.Drawer_drawerContentLayout, 0);
+        contentAsync = array.getBoolean(R.styleable.Drawer_drawerContentAsync, false);
+        mContentMode = ContentMode.values()[array.getInt(R.styleable.Drawer_drawerContentMode, 0)];
+        mContentHeight = array.getDimensionPixelSize(R.styleable.Drawer_drawerContentHeight,
+                ViewGroup.LayoutParams.MATCH_PARENT);
+        mContent = createContentContainer(context);
 
-                @Override
-                public void onAnimationRepeat(Animator animation) { }
-            });
-            float translationPercent = 1 - (-1 * mTranslationStart / mMaxTranslation);
-            animator.setFloatValues(translationPercent, 0);
-            animator.setPropertyName("translationPercent");
-            if (translationPercent < 0.01) {
-                animator.setDuration(0);
-            } else {
-                animator.setDuration(getDuration(mSlideDuration));
-            }
-            animator.setTarget(this);
-            animator.start();
+        if (openDrawable != null) {
+            openDrawable.setColorFilter(openColor, PorterDuff.Mode.DST);
+            mHandle.setOpenDrawable(openDrawable);
+        } else if (openString != null) {
+            mHandle.setOpenText(openString, openColor, handleTextSize);
+        }
+
+        if (closedDrawable != null) {
+            closedDrawable.setColorFilter(closedColor, PorterDuff.Mode.DST);
+            mHandle.setClosedDrawable(closedDrawable);
+        } else if (closedString != null) {
+            mHandle.setClosedText(closedString, closedColor, handleTextSize);
+        }
+
+        mHandle.setContentOffset((int) handleTextSize / 5 * -1);
+        mHandle.setCrossfade(array.getBoolean(R.styleable.Drawer_drawerHandleCrossfade, false));
+        mHandle.setLayoutParams(new LayoutParams((int) handleWidth, (int) handleHeight));
+        if (Build.VERSION.SDK_INT >= 16) {
+            mHandle.setBackground(mHandleBackground);
         } else {
-            setTranslationPercent(0);
-            changeDrawerState(DrawerState.CLOSED, triggerListeners);
-            toggleEnabled(false, mContent);
+            mHandle.setBackgroundDrawable(mHandleBackground);
         }
-    }
+        mHandle.setId(handleId);
+        mHandle.setOnTouchListener(new OnTouchListener() {
+            @Override
+            public boolean onTouch(View v, MotionEvent event) {
+                onHandleTouch(event);
+                return true;
+            }
+        });
+
+        // The content and handle are laid out by onLayout directly, without intermediate containers
+        super.addView(mContent, -1, mContent.getLayoutParams());
+        super.addView(mHandle, -1, mHandle.getLayoutParams());
+
+        // Applied up front; the first layout then positions the drawer from its percent, so the first drawn frame is
+        // already correct
+        bindState(mInitiallyOpen ? DrawerState.OPEN : DrawerState.CLOSED);
 
-    private int getDuration(int baseTime) {
-        if (mVelocity == 0) {
-            return baseTime;
+        if (contentLayout != 0) {
+            setContentFactory(new LayoutContentFactory(contentLayout), contentAsync);
         }
 
-        return Math.min((int) Math.abs(baseTime / (mVelocity / mTranslationStart)), baseTime);
+        array.recycle();
     }
 
     /**
-     * Toggles the drawer based on its current state
+     * @return True if the attribute holds text, inline or as a string resource, rather than a drawable
      */
-    public void toggle() {
-        switch (mDrawerState) {
+    private static boolean isTextAttribute(TypedArray array, int index) {
+        TypedValue value = array.peekValue(index);
+        if (value == null || value.type != TypedValue.TYPE_STRING) {
+            return false;
+        }
+        // File-based drawables resolve to a string as well, the path of the file, so the resource type decides
+        return value.resourceId == 0 || "string".equals(array.getResources().getResourceTypeName(value.resourceId));
+    }
+
+    /**
+     * Creates the container the drawer's child is hosted in for the current {@link ContentMode}
+     */
+    private ViewGroup createContentContainer(Context context) {
+        ViewGroup container;
+        if (mContentMode == ContentMode.SCROLL) {
+            container = new ScrollView(context);
+            container.setVerticalScrollBarEnabled(false);
+            container.setHorizontalScrollBarEnabled(false);
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+                // Lets a scroll that reaches the end of the content carry on into closing the drawer
+                container.setNestedScrollingEnabled(true);
+            }
+        } else {
+            // Recycling lists need a bounded height to recycle, which a ScrollView would never give them
+            container = new FrameLayout(context);
+        }
+        container.setLayoutParams(new LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, mContentHeight));
+        return container;
+    }
+
+    /**
+     * Sets how the drawer's child is hosted. Must be called before the child is added.
+     */
+    @SuppressWarnings("unused")
+    public void setContentMode(ContentMode contentMode) {
+        if (mContentMode == contentMode) {
+            return;
+        }
+        if (mContent.getChildCount() > 0) {
+            throw new IllegalStateException("Content mode must be set before the drawer's child is added");
+        }
+
+        mContentMode = contentMode;
+        removeView(mContent);
+        mContent = createContentContainer(getContext());
+        super.addView(mContent, 0, mContent.getLayoutParams());
+        if (mContentBlocked) {
+            mContentBlocked = false;
+            setContentBlocked(true);
+        }
+    }
+
+    /**
+     * @return SCROLL or DIRECT
+     */
+    @SuppressWarnings("unused")
+    public ContentMode getContentMode() {
+        return mContentMode;
+    }
+
+    /**
+     * Sets a factory that creates the drawer's content on demand instead of requiring it to be added up front. The
+     * content is created when the drawer is first opened, or prefetched on a background thread as soon as the
+     * handle is touched.
+     *
+     * @param factory Creates the content; when prefetched it is called off the UI thread
+     * @param async   True to start creating the content on a background thread right away
+     */
+    @SuppressWarnings("unused")
+    public void setContentFactory(ContentFactory factory, boolean async) {
+        if (mContent.getChildCount() > 0) {
+            throw new IllegalStateException("Drawer can host only one direct child");
+        }
+
+        if (mContentLoader != null) {
+            mContentLoader.cancelLoad();
+            mContentLoader = null;
+        }
+        mContentFactory = factory;
+        if (mDrawerState != DrawerState.CLOSED) {
+            ensureContent();
+        } else if (async) {
+            prefetchContent();
+        }
+    }
+
+    /**
+     * Starts creating the content on a background thread if it has not been created yet
+     */
+    private void prefetchContent() {
+        if (mContentFactory == null || mContentLoader != null || mContent.getChildCount() > 0) {
+            return;
+        }
+
+        mContentLoader = new ContentLoader(mContentFactory, getContext(), mContent, mContentLoaded);
+        mContentLoader.prefetch();
+    }
+
+    /**
+     * Makes sure the content is attached, creating it on the UI thread if it has not been prefetched
+     */
+    private void ensureContent() {
+        if (mContentFactory == null || mContent.getChildCount() > 0) {
+            return;
+        }
+
+        View content = null;
+        if (mContentLoader != null) {
+            // Dropped first, so that if the factory failed, the next attempt tries again on the UI thread
+            ContentLoader loader = mContentLoader;
+            mContentLoader = null;
+            content = loader.load();
+        }
+        if (content == null) {
+            content = mContentFactory.createContent(getContext(), mContent);
+        }
+        mContent.addView(content);
+        if (mEvictedState != null) {
+            // Content rebuilt after an eviction picks up where it was left
+            content.restoreHierarchyState(mEvictedState);
+            mEvictedState = null;
+        }
+        mEvictedHeight = 0;
+        scheduleEviction();
+    }
+
+    /**
+     * Lets the drawer release content created by its {@link ContentFactory} while it is closed, either when the
+     * system runs low on memory or once it has stayed closed for a while. The content's view state is kept, and the
+     * content is created again the next time the drawer is opened or its handle is touched. Content added directly
+     * is never released.
+     *
+     * @param enabled    True to release the content under memory pressure
+     * @param idleMillis How long the drawer has to stay closed before its content is released, 0 to only release it
+     *                   under memory pressure
+     */
+    @SuppressWarnings("unused")
+    public void setContentEviction(boolean enabled, long idleMillis) {
+        mEvictionEnabled = enabled;
+        mEvictionDelay = enabled ? Math.max(0, idleMillis) : 0;
+        updateTrimCallbacks(mAttached);
+        scheduleEviction();
+    }
+
+    /**
+     * Restarts the idle countdown if the drawer is closed, and stops it otherwise
+     */
+    private void scheduleEviction() {
+        removeCallbacks(mEvictContent);
+        if (mAttached && mEvictionDelay > 0 && mDrawerState == DrawerState.CLOSED && mContent.getChildCount() > 0) {
+            postDelayed(mEvictContent, mEvictionDelay);
+        }
+    }
+
+    /**
+     * Releases the content if it can be rebuilt and nobody can see it, keeping its view state and height
+     */
+    private void evictContent() {
+        if (!mEvictionEnabled || mContentFactory == null || mContent.getChildCount() == 0
+                || mDrawerState != DrawerState.CLOSED || mSliding || mDragging) {
+            return;
+        }
+
+        View content = mContent.getChildAt(0);
+        mEvictedState = new SparseArray<Parcelable>();
+        content.saveHierarchyState(mEvictedState);
+        mEvictedHeight = mContent.getMeasuredHeight();
+        mContent.removeView(content);
+        removeCallbacks(mEvictContent);
+    }
+
+    /**
+     * Registers for memory pressure callbacks while the drawer is attached and eviction is enabled
+     *
+     * @param attached Whether the drawer is attached; the window token is still set while it is being detached
+     */
+    private void updateTrimCallbacks(boolean attached) {
+        boolean register = mEvictionEnabled && attached;
+        if (register == mTrimCallbacksRegistered
+                || Build.VERSION.SDK_INT < Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
+            return;
+        }
+
+        if (mTrimCallbacks == null) {
+            mTrimCallbacks = new ComponentCallbacks2() {
+                @Override
+                public void onTrimMemory(int level) {
+                    if (level >= TRIM_MEMORY_RUNNING_LOW) {
+                        evictContent();
+                    }
+                }
+
+                @Override
+                public void onConfigurationChanged(Configuration newConfig) { }
+
+                @Override
+                public void onLowMemory() {
+                    evictContent();
+                }
+            };
+        }
+
+        // Held by the application, so it is unregistered on detach to never keep the drawer alive
+        Context application = getContext().getApplicationContext();
+        if (register) {
+            application.registerComponentCallbacks(mTrimCallbacks);
+        } else {
+            application.unregisterComponentCallbacks(mTrimCallbacks);
+        }
+        mTrimCallbacksRegistered = register;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        mAttached = true;
+        getViewTreeObserver().addOnPreDrawListener(mPercentFlush);
+        updateTrimCallbacks(true);
+        scheduleEviction();
+    }
+
+    /**
+     * Lets go of everything outside the drawer that refers back to it: a running animator is referenced by the
+     * animation thread, posted callbacks by the message queue and the trim callbacks by the application. A slide in
+     * progress is finished on the spot, so the drawer is in a settled state when it is attached again; listeners are
+     * not told about it, nor about a percent update still waiting for a frame.
+     */
+    @Override
+    protected void onDetachedFromWindow() {
+        // Cleared first, so nothing below posts to a queue the drawer is leaving; below API 24 such posts are parked
+        // in a thread-local queue that is only drained by the next traversal and would keep the drawer alive
+        mAttached = false;
+        settleSilently();
+        cancelPercentDispatch();
+        mPercentDispatchScheduled = false;
+        cancelMetricsFrame();
+        getViewTreeObserver().removeOnPreDrawListener(mPercentFlush);
+        removeCallbacks(mEvictContent);
+        if (mContentLoader != null) {
+            mContentLoader.cancelLoad();
+            mContentLoader = null;
+        }
+        recycleDragTracker();
+        mBlockingTouch = false;
+
+        super.onDetachedFromWindow();
+        updateTrimCallbacks(false);
+    }
+
+    /**
+     * Finishes a running slide or drag immediately, at the state it was heading for. Listeners are not notified, as
+     * the drawer is going away and they may already have been torn down with it.
+     */
+    private void settleSilently() {
+        if (mAnimator.isRunning() || mGroupSliding) {
+            bindState(mAnimationEndState);
+        } else if (mDragging) {
+            bindState(mTranslationPercent > 0.5 ? DrawerState.OPEN : DrawerState.CLOSED);
+        }
+    }
+
+    /**
+     * Sets the open handle to the provided view
+     */
+    @SuppressWarnings({ "unused", "deprecation" })
+    public void setOpenHandle(Drawable d) {
+        if (Build.VERSION.SDK_INT >= 16) {
+            mHandle.setBackground(mHandleBackground);
+        } else {
+            mHandle.setBackgroundDrawable(mHandleBackground);
+        }
+        mHandleBackground = d;
+        invalidate();
+        requestLayout();
+    }
+
+    /**
+     * Sets the open handle to the provided view
+     */
+    @SuppressWarnings("unused")
+    public void setOpenHandle(View view) {
+        mHandle.setOpenView(view);
+    }
+
+    /**
+     * Sets the closed handle to the provided view
+     */
+    @SuppressWarnings("unused")
+    public void setClosedHandle(View view) {
+        mHandle.setClosedView(view);
+    }
+
+    /**
+     * Enables or disables performance metrics for this drawer. While disabled nothing is recorded.
+     */
+    @SuppressWarnings("unused")
+    public void setMetricsEnabled(boolean enabled) {
+        if (!enabled) {
+            mMetrics = null;
+        } else if (mMetrics == null) {
+            mMetrics = new DrawerMetrics();
+        }
+    }
+
+    /**
+     * @return The drawer's metrics, or null if they are not enabled
+     */
+    @SuppressWarnings("unused")
+    public DrawerMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    /**
+     * Sets how the drawer renders its content while sliding
+     */
+    @SuppressWarnings("unused")
+    public void setRenderMode(RenderMode renderMode) {
+        mRenderMode = renderMode;
+    }
+
+    /**
+     * @return NORMAL, HARDWARE_LAYER or SNAPSHOT
+     */
+    @SuppressWarnings("unused")
+    public RenderMode getRenderMode() {
+        return mRenderMode;
+    }
+
+    /**
+     * Gets the drawer state
+     *
+     * @return OPEN, CLOSED, OPENING, or CLOSING
+     */
+    @SuppressWarnings("unused")
+    public DrawerState getDrawerState() {
+        return mDrawerState;
+    }
+
+    /**
+     * @return The slide duration in milliseconds
+     */
+    @SuppressWarnings("unused")
+    public int getSlideDuration() {
+        return mSlideDuration;
+    }
+
+    /**
+     * Open the drawer
+     */
+    public void open() {
+        open(true, true);
+    }
+
+    /**
+     * Open the drawer
+     *
+     * @param animate          True to animate drawer, false to snap
+     * @param triggerListeners Determines whether or not the drawer state listeners are triggered
+     */
+    public void open(boolean animate, boolean triggerListeners) {
+        if (mDrawerState == DrawerState.OPEN) {
+            return;
+        }
+
+        if (mGroup != null) {
+            mGroup.onMemberOpening(this, animate);
+        }
+        ensureContent();
+
+        long dispatchStart = beginDispatch();
+        DrawerListener[] listeners = mDrawerListeners;
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i].onOpen();
+        }
+        endDispatch(dispatchStart);
+
+        setContentBlocked(false);
+        if (animate) {
+            changeDrawerState(DrawerState.OPENING, triggerListeners);
+            animateTo(1, DrawerState.OPEN, triggerListeners);
+        } else {
+            cancelSlide();
+            setTranslationPercent(1);
+            endSlide();
+            changeDrawerState(DrawerState.OPEN, triggerListeners);
+        }
+    }
+
+    /**
+     * Close the drawer
+     */
+    public void close() {
+        close(true, true);
+    }
+
+    /**
+     * Close the drawer
+     *
+     * @param animate          True to animate drawer, false to snap
+     * @param triggerListeners Determines whether or not the drawer state listeners are triggered
+     */
+    public void close(boolean animate, boolean triggerListeners) {
+        if (mDrawerState == DrawerState.CLOSED) {
+            return;
+        }
+
+        long dispatchStart = beginDispatch();
+        DrawerListener[] listeners = mDrawerListeners;
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i].onClose();
+        }
+        endDispatch(dispatchStart);
+
+        clearFocus();
+
+        if (animate) {
+            changeDrawerState(DrawerState.CLOSING, triggerListeners);
+            animateTo(0, DrawerState.CLOSED, triggerListeners);
+        } else {
+            cancelSlide();
+            setTranslationPercent(0);
+            endSlide();
+            changeDrawerState(DrawerState.CLOSED, triggerListeners);
+            setContentBlocked(true);
+        }
+    }
+
+    /**
+     * Retargets the shared animator at the given percent, cancelling any slide that is already running. The new
+     * motion starts from the current position with the release velocity of a drag, or with the velocity of the
+     * interrupted slide, so there is no visual jump. Drawers in a {@link DrawerGroup} are stepped by the group
+     * instead, so that all of its members move in the same frame callback.
+     */
+    private void animateTo(float translationPercent, DrawerState endState, boolean triggerListeners) {
+        float velocity = mReleaseVelocity;
+        if (velocity == 0 && mAnimator.isRunning()) {
+            velocity = mSpring.getVelocity(mAnimator.getCurrentPlayTime() / 1000f);
+        } else if (velocity == 0 && mGroupSliding && mGroupSlideStart >= 0) {
+            velocity = mSpring.getVelocity((System.nanoTime() - mGroupSlideStart) / 1e9f);
+        }
+        mReleaseVelocity = 0;
+
+        cancelSlide();
+        mSpring.start(mTranslationPercent, velocity, translationPercent, mSlideDuration);
+        mAnimationEndState = endState;
+        mAnimationTriggerListeners = triggerListeners;
+        mAnimationCanceled = false;
+        beginSlide();
+        if (mMetrics != null) {
+            mMetrics.onAnimationStart();
+        }
+        if (mGroup != null) {
+            mGroupSliding = true;
+            // Starts on the group's next frame, like the animator would
+            mGroupSlideStart = -1;
+            mGroup.scheduleSlide(this);
+        } else {
+            mAnimator.setDuration(mSpring.getSettleDuration());
+            mAnimator.start();
+            scheduleMetricsFrame();
+        }
+    }
+
+    /**
+     * Stops a slide where it is, whether it is run by the animator or by a group
+     */
+    private void cancelSlide() {
+        mAnimator.cancel();
+        mGroupSliding = false;
+        cancelMetricsFrame();
+    }
+
+    /**
+     * Times the animator's frames from the frame callbacks that drive it, as the animator does not expose its frame
+     * time; the callback for the frame the animator finishes in still runs, so the last frame is counted too
+     */
+    private void scheduleMetricsFrame() {
+        if (mMetrics == null || Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN) {
+            return;
+        }
+        if (mMetricsFrameCallback == null) {
+            mMetricsFrameCallback = new Choreographer.FrameCallback() {
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    if (mMetrics == null) {
+                        return;
+                    }
+                    mMetrics.onAnimationFrame(frameTimeNanos);
+                    if (mAnimator.isRunning()) {
+                        Choreographer.getInstance().postFrameCallback(this);
+                    }
+                }
+            };
+        }
+        Choreographer.getInstance().removeFrameCallback(mMetricsFrameCallback);
+        Choreographer.getInstance().postFrameCallback(mMetricsFrameCallback);
+    }
+
+    private void cancelMetricsFrame() {
+        if (mMetricsFrameCallback != null) {
+            Choreographer.getInstance().removeFrameCallback(mMetricsFrameCallback);
+        }
+    }
+
+    /**
+     * Advances a slide run by this drawer's group
+     *
+     * @param frameTimeNanos Time of the frame being prepared, in the {@link System#nanoTime()} time base
+     * @return True if the slide is still running afterwards
+     */
+    boolean stepGroupSlide(long frameTimeNanos) {
+        if (!mGroupSliding) {
+            return false;
+        }
+        if (mGroupSlideStart < 0) {
+            mGroupSlideStart = frameTimeNanos;
+        }
+
+        if (mMetrics != null) {
+            mMetrics.onAnimationFrame(frameTimeNanos);
+        }
+        long elapsedNanos = frameTimeNanos - mGroupSlideStart;
+        if (elapsedNanos >= mSpring.getSettleDuration() * 1000000L) {
+            finishGroupSlide();
+            return false;
+        }
+        float translationPercent = mSpring.getPosition(elapsedNanos / 1e9f);
+        setTranslationPercent(Math.max(0, Math.min(1, translationPercent)));
+        return true;
+    }
+
+    private void finishGroupSlide() {
+        mGroupSliding = false;
+        setTranslationPercent(mSpring.getTarget());
+        onAnimationFinished();
+    }
+
+    /**
+     * Called by {@link DrawerGroup} as the drawer joins or leaves it; a slide the group was running is finished on
+     * the spot so the drawer never stalls halfway
+     */
+    void setGroup(DrawerGroup group) {
+        if (mGroupSliding) {
+            finishGroupSlide();
+        }
+        mGroup = group;
+    }
+
+    DrawerGroup getGroup() {
+        return mGroup;
+    }
+
+    /**
+     * Everything that does not depend on the finger position happens once per drag
+     */
+    private void startDrag() {
+        mDragging = true;
+        cancelSlide();
+        removeCallbacks(mEvictContent);
+        ensureContent();
+        setContentBlocked(false);
+        beginSlide();
+    }
+
+    /**
+     * Handles touches on the handle: a vertical drag moves the drawer, lifting the finger settles it with the
+     * finger's velocity, and a touch that never becomes a drag toggles it
+     */
+    private void onHandleTouch(MotionEvent event) {
+        int action = event.getActionMasked();
+        if (action == MotionEvent.ACTION_DOWN) {
+            // Taken from the shared pool for the length of the gesture only
+            if (mDragTracker == null) {
+                mDragTracker = DragTracker.obtain(getContext());
+            }
+            mDragTracker.setPredictionMillis(mDragPrediction);
+        } else if (mDragTracker == null) {
+            // The rest of a gesture whose start was dropped by bindState() or by detaching
+            return;
+        }
+
+        switch (action) {
+            case MotionEvent.ACTION_DOWN:
+                if (mMetrics != null) {
+                    mMetrics.onTouchDown(event.getEventTime());
+                }
+                mDragTracker.onDown(event);
+                prefetchContent();
+                // Catch a settling drawer where it is; the next drag or release continues from there
+                cancelSlide();
+                mHandle.setPressed(true);
+                break;
+            case MotionEvent.ACTION_MOVE:
+                if (!mDragTracker.onMove(event) || mMaxTranslation <= 0) {
+                    break;
+                }
+                if (!mDragging) {
+                    if (mMetrics != null) {
+                        mMetrics.onFirstMove(event.getEventTime());
+                    }
+                    startDrag();
+                    mDragStartPercent = mTranslationPercent;
+                    if (getParent() != null) {
+                        getParent().requestDisallowInterceptTouchEvent(true);
+                    }
+                }
+
+                float lastDelta = mDragTracker.getLastDelta();
+                if (lastDelta != 0) {
+                    mDrawerState = lastDelta > 0 ? DrawerState.OPENING : DrawerState.CLOSING;
+                }
+                // Positions are absolute from where the drag started, so they never drift from the finger
+                float translationPercent = mDragStartPercent + mDragTracker.getDragOffset() / mMaxTranslation;
+                // Translation is a pure transform, so no layout pass is needed to move the drawer
+                setTranslationPercent(Math.max(0, Math.min(1, translationPercent)));
+                break;
+            case MotionEvent.ACTION_UP:
+                mDragTracker.onUp(event);
+                if (mDragging) {
+                    release(mMaxTranslation > 0 ? mDragTracker.computeVelocity() / mMaxTranslation : 0);
+                } else {
+                    mHandle.setPressed(false);
+                    toggle();
+                }
+                recycleDragTracker();
+                break;
+            case MotionEvent.ACTION_CANCEL:
+                if (mDragging) {
+                    release(0);
+                } else {
+                    mHandle.setPressed(false);
+                    if (mDrawerState == DrawerState.OPENING || mDrawerState == DrawerState.CLOSING) {
+                        release(0);
+                    }
+                }
+                recycleDragTracker();
+                break;
+        }
+    }
+
+    private void recycleDragTracker() {
+        if (mDragTracker != null) {
+            mDragTracker.recycle();
+            mDragTracker = null;
+        }
+    }
+
+    /**
+     * Places the drawer ahead of the latest touch sample while dragging, to make up for input and display latency
+     *
+     * @param predictionMillis How far ahead to predict the finger, 0 to disable
+     */
+    @SuppressWarnings("unused")
+    public void setDragPrediction(int predictionMillis) {
+        mDragPrediction = predictionMillis;
+        if (mDragTracker != null) {
+            mDragTracker.setPredictionMillis(predictionMillis);
+        }
+    }
+
+    /**
+     * Settles the drawer after the user lets go, carrying the finger's momentum into the slide
+     *
+     * @param velocity Release velocity in percent per second, positive towards open
+     */
+    private void release(float velocity) {
+        mDragging = false;
+        mHandle.setPressed(false);
+
+        boolean open = velocity != 0 ? velocity > 0 : mTranslationPercent > 0.5;
+        mReleaseVelocity = velocity;
+        if (open) {
+            open();
+        } else {
+            close();
+        }
+        mReleaseVelocity = 0;
+    }
+
+    private void onAnimationFinished() {
+        endSlide();
+        changeDrawerState(mAnimationEndState, mAnimationTriggerListeners);
+        if (mAnimationEndState == DrawerState.CLOSED) {
+            setContentBlocked(true);
+        }
+    }
+
+    /**
+     * Prepares the content for a slide; in {@link RenderMode#HARDWARE_LAYER} mode it is moved onto a hardware layer,
+     * along with the handle unless it crossfades, so that each frame only updates the layers' transforms instead of
+     * redrawing them, and in
+     * {@link RenderMode#SNAPSHOT} mode it is drawn once into a bitmap that is slid in its place
+     */
+    private void beginSlide() {
+        if (mSliding) {
+            return;
+        }
+        mSliding = true;
+        if (mMetrics != null) {
+            mMetrics.onSlideStart();
+        }
+
+        if (mRenderMode == RenderMode.HARDWARE_LAYER) {
+            startLayer(mContent);
+            // A crossfading handle redraws on every frame, which would re-render its layer every frame as well
+            if (!mHandle.isCrossfade()) {
+                startLayer(mHandle);
+            }
+        } else if (mRenderMode == RenderMode.SNAPSHOT) {
+            takeSnapshot();
+        }
+    }
+
+    private static void startLayer(View view) {
+        view.setLayerType(LAYER_TYPE_HARDWARE, null);
+        if (view.getWindowToken() != null && view.isHardwareAccelerated()) {
+            view.buildLayer();
+        }
+    }
+
+    private void takeSnapshot() {
+        int width = mContent.getWidth();
+        int height = mContent.getHeight();
+        // Surfaces are composed outside the view hierarchy, so drawing them into a bitmap leaves them blank
+        if (width <= 0 || height <= 0 || containsSurface(mContent)) {
+            return;
+        }
+
+        mSnapshot = SnapshotPool.acquire(getContext(), width, height);
+        if (mSnapshot != null) {
+            mSnapshot.eraseColor(Color.TRANSPARENT);
+            if (mSnapshotCanvas == null) {
+                mSnapshotCanvas = new Canvas();
+            }
+            mSnapshotCanvas.setBitmap(mSnapshot);
+            int saveCount = mSnapshotCanvas.save();
+            // The parent normally applies the content's own scroll offset, which drawing it directly skips
+            mSnapshotCanvas.translate(-mContent.getScrollX(), -mContent.getScrollY());
+            mContent.draw(mSnapshotCanvas);
+            mSnapshotCanvas.restoreToCount(saveCount);
+            // The bitmap goes back to the pool, which may recycle it, so the canvas does not keep it
+            mSnapshotCanvas.setBitmap(null);
+            invalidate();
+        }
+    }
+
+    private static boolean containsSurface(View view) {
+        if (view instanceof SurfaceView || (Build.VERSION.SDK_INT >= Build.VERSION_CODES.ICE_CREAM_SANDWICH
+                && view instanceof TextureView)) {
+            return true;
+        }
+        if (view instanceof ViewGroup) {
+            ViewGroup group = (ViewGroup) view;
+            for (int i = 0; i < group.getChildCount(); i++) {
+                if (containsSurface(group.getChildAt(i))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void releaseSnapshot() {
+        if (mSnapshot != null) {
+            dropSnapshot();
+            invalidate();
+        }
+    }
+
+    /**
+     * Returns the snapshot to the pool without redrawing, for use while the drawer is being drawn
+     */
+    private void dropSnapshot() {
+        if (mSnapshot != null) {
+            SnapshotPool.release(mSnapshot);
+            mSnapshot = null;
+        }
+        mSnapshotStale = false;
+        mSnapshotLeftEnd = false;
+    }
+
+    /**
+     * Releases anything acquired by {@link #beginSlide()} once the drawer has settled
+     */
+    private void endSlide() {
+        if (!mSliding) {
+            return;
+        }
+        mSliding = false;
+
+        if (mContent.getLayerType() != LAYER_TYPE_NONE) {
+            mContent.setLayerType(LAYER_TYPE_NONE, null);
+        }
+        if (mHandle.getLayerType() != LAYER_TYPE_NONE) {
+            mHandle.setLayerType(LAYER_TYPE_NONE, null);
+        }
+        releaseSnapshot();
+    }
+
+    /**
+     * Blocks or restores interaction with the content at the drawer level. The children's own enabled states are
+     * left untouched, so this costs the same regardless of how large the content is.
+     */
+    private void setContentBlocked(boolean blocked) {
+        if (mContentBlocked == blocked) {
+            return;
+        }
+        mContentBlocked = blocked;
+
+        if (blocked) {
+            View focused = mContent.findFocus();
+            if (focused != null) {
+                focused.clearFocus();
+            }
+            mContent.setDescendantFocusability(FOCUS_BLOCK_DESCENDANTS);
+        } else {
+            mContent.setDescendantFocusability(FOCUS_AFTER_DESCENDANTS);
+        }
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            mContent.setImportantForAccessibility(blocked ? IMPORTANT_FOR_ACCESSIBILITY_NO_HIDE_DESCENDANTS
+                    : IMPORTANT_FOR_ACCESSIBILITY_AUTO);
+        } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            mContent.setImportantForAccessibility(blocked ? IMPORTANT_FOR_ACCESSIBILITY_NO
+                    : IMPORTANT_FOR_ACCESSIBILITY_AUTO);
+        }
+    }
+
+    /**
+     * @return True if the given vertical position, in this view's coordinates, falls on the row the handle sits in
+     */
+    private boolean isInHandleRow(float y) {
+        float top = mHandle.getTop() + mHandle.getTranslationY();
+        return y >= top && y < top + mHandle.getHeight();
+    }
+
+    /**
+     * @return True if the given point, in this view's coordinates, falls on the handle itself
+     */
+    private boolean isOnHandle(float x, float y) {
+        return x >= mHandle.getLeft() && x < mHandle.getRight() && isInHandleRow(y);
+    }
+
+    /**
+     * @return True if the given point, in this view's coordinates, falls on the visible part of the content
+     */
+    private boolean isInContent(float x, float y) {
+        float top = mContent.getTop() + mContent.getTranslationY();
+        return x >= mContent.getLeft() && x < mContent.getRight() && y >= top && y < top + mContent.getHeight();
+    }
+
+    /**
+     * Puts the drawer in the given state immediately, without animating and without notifying listeners. Meant for
+     * binding recycled drawers, such as list rows, to their data.
+     *
+     * @param state OPEN or CLOSED; OPENING and CLOSING bind to the state being moved towards
+     */
+    public void bindState(DrawerState state) {
+        boolean open = state == DrawerState.OPEN || state == DrawerState.OPENING;
+        cancelSlide();
+        // A percent still waiting to be delivered belongs to whatever the drawer was bound to before
+        cancelPercentDispatch();
+        mPercentDispatchScheduled = false;
+        mDispatchedPercent = Float.NaN;
+        mDragging = false;
+        // A recycled row must not carry on with a gesture that started on its previous item
+        recycleDragTracker();
+        mBlockingTouch = false;
+        mReleaseVelocity = 0;
+        mHandle.setPressed(false);
+
+        if (open) {
+            ensureContent();
+        }
+        mDrawerState = open ? DrawerState.OPEN : DrawerState.CLOSED;
+        scheduleEviction();
+        mTranslationPercent = open ? 1 : 0;
+        applyTranslation();
+        mHandle.setVisiblePercent(mTranslationPercent);
+        setContentBlocked(!open);
+        endSlide();
+    }
+
+    /**
+     * Returns the drawer to its initial state without animating, notifying listeners or allocating
+     */
+    @SuppressWarnings("unused")
+    public void reset() {
+        bindState(mInitiallyOpen ? DrawerState.OPEN : DrawerState.CLOSED);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        SavedState state = new SavedState(super.onSaveInstanceState());
+        state.mOpen = mDrawerState == DrawerState.OPEN || mDrawerState == DrawerState.OPENING;
+        return state;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+
+        SavedState savedState = (SavedState) state;
+        super.onRestoreInstanceState(savedState.getSuperState());
+        bindState(savedState.mOpen ? DrawerState.OPEN : DrawerState.CLOSED);
+    }
+
+    /**
+     * Toggles the drawer based on its current state
+     */
+    public void toggle() {
+        switch (mDrawerState) {
             case OPEN:
                 close();
                 break;
@@ -541,18 +1511,24 @@ public class Drawer extends LinearLayout {
                 open();
                 break;
             case OPENING:
+                close();
                 break;
             case CLOSING:
+                open();
                 break;
         }
     }
 
     private void changeDrawerState(DrawerState state, boolean triggerListeners) {
         mDrawerState = state;
-        if (mDrawerListeners.size() > 0 && triggerListeners) {
-            for (DrawerListener listener : mDrawerListeners) {
-                listener.onDrawerStateChanged(state);
+        scheduleEviction();
+        if (triggerListeners) {
+            long dispatchStart = beginDispatch();
+            DrawerListener[] listeners = mDrawerListeners;
+            for (int i = 0; i < listeners.length; i++) {
+                listeners[i].onDrawerStateChanged(state);
             }
+            endDispatch(dispatchStart);
         }
     }
 
@@ -562,44 +1538,294 @@ public class Drawer extends LinearLayout {
      * @param translationPercent Value between 1 and 0 inclusive
      */
     public void setTranslationPercent(float translationPercent) {
-        mWrapper.setTranslationY(mMaxTranslation * -1 * (1 - translationPercent));
-        if (translationPercent > 0.5) {
-            mClosedHandle.setAlpha(0);
-            mOpenHandle.setAlpha(1);
+        boolean traced = mMetrics != null;
+        if (traced) {
+            DrawerMetrics.beginSection("Drawer:setTranslationPercent");
+        }
+
+        mTranslationPercent = translationPercent;
+        applyTranslation();
+        mHandle.setVisiblePercent(translationPercent);
+
+        // A detached drawer has no frames to coalesce into
+        if (mCoalescePercentUpdates && mAttached) {
+            mPendingPercent = translationPercent;
+            if (!mPercentDispatchScheduled) {
+                mPercentDispatchScheduled = true;
+                schedulePercentDispatch();
+            }
         } else {
-            mOpenHandle.setAlpha(0);
-            mClosedHandle.setAlpha(1);
+            dispatchVisiblePercentChange(translationPercent);
+        }
+
+        if (traced) {
+            DrawerMetrics.endSection();
         }
+    }
+
+    private long beginDispatch() {
+        if (mMetrics == null) {
+            return 0;
+        }
+        DrawerMetrics.beginSection("Drawer:dispatchListeners");
+        return System.nanoTime();
+    }
+
+    private void endDispatch(long dispatchStart) {
+        if (dispatchStart == 0) {
+            return;
+        }
+        if (mMetrics != null) {
+            mMetrics.onListenersDispatched(dispatchStart);
+        }
+        DrawerMetrics.endSection();
+    }
+
+    private void applyTranslation() {
+        float translation = mMaxTranslation * -1 * (1 - mTranslationPercent);
+        float previousTranslation = mContent.getTranslationY();
+        if (translation != previousTranslation) {
+            mApplyingTranslation = true;
+            mContent.setTranslationY(translation);
+            mApplyingTranslation = false;
+            // Moving the live content only updates its own properties. The drawer is redrawn only where drawChild()
+            // changes what it draws: once the content is tucked away completely or fully shown again, and on every
+            // change while it draws the snapshot itself.
+            if (mSnapshot != null || (translation == 0) != (previousTranslation == 0)
+                    || isContentHidden(translation) != isContentHidden(previousTranslation)) {
+                invalidate();
+            }
+        }
+        mHandle.setTranslationY(translation);
+
+        if (mSnapshot != null) {
+            // A drag that brings the drawer back to fully open or closed may carry on into the content, as nested
+            // scrolls do, so the live content takes over there
+            if (mTranslationPercent > 0 && mTranslationPercent < 1) {
+                mSnapshotLeftEnd = true;
+            } else if (mSnapshotLeftEnd && mDragging) {
+                releaseSnapshot();
+            }
+        }
+    }
 
-        if (mDrawerListeners.size() > 0) {
-            for (DrawerListener listener : mDrawerListeners) {
-                listener.onVisiblePercentChange(translationPercent);
+    /**
+     * Schedules the coalesced update for the next frame. It is normally flushed earlier, just before the current
+     * frame is drawn, and the frame callback only delivers updates that never reach a draw.
+     */
+    private void schedulePercentDispatch() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            if (mPercentFrameCallback == null) {
+                mPercentFrameCallback = new Choreographer.FrameCallback() {
+                    @Override
+                    public void doFrame(long frameTimeNanos) {
+                        flushPercentDispatch();
+                    }
+                };
             }
+            Choreographer.getInstance().postFrameCallback(mPercentFrameCallback);
+        } else {
+            post(mPercentDispatch);
+        }
+    }
+
+    private void cancelPercentDispatch() {
+        if (mPercentFrameCallback != null) {
+            Choreographer.getInstance().removeFrameCallback(mPercentFrameCallback);
+        }
+        removeCallbacks(mPercentDispatch);
+    }
+
+    private void flushPercentDispatch() {
+        if (mPercentDispatchScheduled) {
+            mPercentDispatchScheduled = false;
+            dispatchVisiblePercentChange(mPendingPercent);
         }
     }
 
+    private void dispatchVisiblePercentChange(float translationPercent) {
+        // The fully open and fully closed positions are always reported so listeners can settle exactly
+        if (mMinPercentDelta > 0 && translationPercent != 0 && translationPercent != 1
+                && Math.abs(translationPercent - mDispatchedPercent) < mMinPercentDelta) {
+            return;
+        }
+        mDispatchedPercent = translationPercent;
+
+        long dispatchStart = beginDispatch();
+        DrawerListener[] listeners = mDrawerListeners;
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i].onVisiblePercentChange(translationPercent);
+        }
+        endDispatch(dispatchStart);
+    }
+
+    /**
+     * Coalesces {@link DrawerListener#onVisiblePercentChange(float)} so that it is called at most once per frame
+     * with the latest percent, just before the frame that shows it is drawn
+     *
+     * @param coalesce True to deliver one update per frame, false to deliver every update as it happens
+     */
+    @SuppressWarnings("unused")
+    public void setPercentUpdatesCoalesced(boolean coalesce) {
+        mCoalescePercentUpdates = coalesce;
+    }
+
+    /**
+     * Suppresses {@link DrawerListener#onVisiblePercentChange(float)} calls that differ from the last delivered
+     * percent by less than the given amount. Fully open and fully closed are always delivered.
+     *
+     * @param minPercentDelta Value between 0 and 1, 0 delivers every change
+     */
+    @SuppressWarnings("unused")
+    public void setMinPercentDelta(float minPercentDelta) {
+        mMinPercentDelta = minPercentDelta;
+    }
+
     /**
-     * Add a drawer listener
+     * Add a drawer listener. Listeners may add or remove listeners, including themselves, from within a callback;
+     * the change takes effect from the next dispatch.
      */
     @SuppressWarnings("unused")
     public void addDrawerListener(DrawerListener listener) {
-        mDrawerListeners.add(listener);
+        DrawerListener[] listeners = new DrawerListener[mDrawerListeners.length + 1];
+        System.arraycopy(mDrawerListeners, 0, listeners, 0, mDrawerListeners.length);
+        listeners[mDrawerListeners.length] = listener;
+        mDrawerListeners = listeners;
+    }
+
+    /**
+     * Add a drawer listener whose state events are delivered on the given executor, for listeners that do slow work
+     * such as disk or network access. {@link DrawerListener#onOpen()}, {@link DrawerListener#onClose()} and
+     * {@link DrawerListener#onDrawerStateChanged(DrawerState)} run one at a time in the order they happened, even on
+     * a multi-threaded executor, and each carries the state as it was when the event happened; the listener should
+     * rely on that rather than on {@link #getDrawerState()}, which may have moved on.
+     * {@link DrawerListener#onVisiblePercentChange(float)} is still called on the UI thread.
+     */
+    @SuppressWarnings("unused")
+    public void addDrawerListener(DrawerListener listener, Executor executor) {
+        addDrawerListener(new ExecutorDrawerListener(listener, executor));
     }
 
     /**
-     * Remove drawer listener
+     * Remove drawer listener. Events for a listener added with an executor that have not been delivered yet are
+     * dropped.
      *
      * @return true if the listener was removed, false if it was not in the list
      */
     @SuppressWarnings("unused")
     public boolean removeDrawerListener(DrawerListener listener) {
-        return mDrawerListeners.remove(listener);
+        DrawerListener[] current = mDrawerListeners;
+        for (int i = 0; i < current.length; i++) {
+            DrawerListener registered = current[i];
+            if (registered instanceof ExecutorDrawerListener
+                    && ((ExecutorDrawerListener) registered).getDelegate().equals(listener)) {
+                ((ExecutorDrawerListener) registered).onRemoved();
+            } else if (!registered.equals(listener)) {
+                continue;
+            }
+
+            if (current.length == 1) {
+                mDrawerListeners = NO_LISTENERS;
+            } else {
+                DrawerListener[] listeners = new DrawerListener[current.length - 1];
+                System.arraycopy(current, 0, listeners, 0, i);
+                System.arraycopy(current, i + 1, listeners, i, current.length - i - 1);
+                mDrawerListeners = listeners;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return The drawer's current translation state: 1 is open, 0 is closed
+     */
+    @SuppressWarnings("unused")
+    public float getTranslationPercent() {
+        return mTranslationPercent;
     }
 
     public enum DrawerState {
         OPEN, CLOSED, OPENING, CLOSING
     }
 
+    public enum ContentMode {
+        /**
+         * The child is wrapped in a ScrollView and measured at its full height
+         */
+        SCROLL,
+        /**
+         * The child is hosted directly with a bounded height, for recycling lists such as ListView or RecyclerView
+         */
+        DIRECT
+    }
+
+    public enum RenderMode {
+        NORMAL,
+        HARDWARE_LAYER,
+        /**
+         * The content is drawn into a pooled bitmap when a slide starts and the bitmap is slid in its place, for
+         * content too heavy to redraw every frame. Content that changes mid-slide drops the bitmap and is drawn live.
+         */
+        SNAPSHOT
+    }
+
+    static class SavedState extends BaseSavedState {
+        private boolean mOpen;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            mOpen = in.readInt() != 0;
+        }
+
+        @Override
+        public void writeToParcel(@NonNull Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeInt(mOpen ? 1 : 0);
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR = new Parcelable.Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
+    }
+
+    /**
+     * Creates the drawer's content on demand
+     */
+    public interface ContentFactory {
+        /**
+         * @param context The drawer's context
+         * @param parent  The container the content is added to, for generating layout params only
+         * @return The content view, not yet attached to a parent
+         */
+        View createContent(Context context, ViewGroup parent);
+    }
+
+    private static class LayoutContentFactory implements ContentFactory {
+        private final int mLayout;
+
+        LayoutContentFactory(int layout) {
+            mLayout = layout;
+        }
+
+        @Override
+        public View createContent(Context context, ViewGroup parent) {
+            return LayoutInflater.from(context).inflate(mLayout, parent, false);
+        }
+    }
+
     public interface DrawerListener {
         void onVisiblePercentChange(float percent);
         void onDrawerStateChanged(DrawerState state);
@@ -607,13 +1833,46 @@ public class Drawer extends LinearLayout {
         void onClose();
     }
 
-    private static void toggleEnabled(boolean enable, ViewGroup vg) {
-        for (int i = 0; i < vg.getChildCount(); i++) {
-            View child = vg.getChildAt(i);
-            child.setEnabled(enable);
-            if (child instanceof ViewGroup) {
-                toggleEnabled(enable, (ViewGroup) child);
+    /**
+     * Drives the shared slide animator without reflection; the animator only supplies the clock and the position
+     * is sampled from the spring, so retargeting never needs new animator values
+     */
+    private class AnimatorCallbacks implements ValueAnimator.AnimatorUpdateListener, Animator.AnimatorListener {
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation) {
+            // Frames are timed from the animation callbacks only; the update the animator makes as it starts is not
+            // a frame. From API 16 a frame callback times them with the frame time instead.
+            if (mMetrics != null && Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN
+                    && animation.getCurrentPlayTime() > 0) {
+                mMetrics.onAnimationFrame(System.nanoTime());
+            }
+            if (animation.getAnimatedFraction() >= 1) {
+                setTranslationPercent(mSpring.getTarget());
+                return;
+            }
+
+            float translationPercent = mSpring.getPosition(animation.getCurrentPlayTime() / 1000f);
+            setTranslationPercent(Math.max(0, Math.min(1, translationPercent)));
+        }
+
+        @Override
+        public void onAnimationStart(Animator animation) { }
+
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            if (mAnimationCanceled) {
+                mAnimationCanceled = false;
+                return;
             }
+            onAnimationFinished();
+        }
+
+        @Override
+        public void onAnimationCancel(Animator animation) {
+            mAnimationCanceled = true;
         }
+
+        @Override
+        public void onAnimationRepeat(Animator animation) { }
     }
 }
@@ -0,0 +1,180 @@
+package com.dambrisco.drawer;
+
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+
+/**
+ * Coordinates a set of drawers, such as an accordion where opening one closes the others. Every animated slide of
+ * every member is stepped from a single frame callback, so drawers that move together update in the same frame and
+ * share one traversal instead of drifting out of phase. All methods must be called on the UI thread.
+ */
+public class DrawerGroup {
+    /**
+     * Frame interval used before Choreographer is available, about 60 fps
+     */
+    private static final long FALLBACK_FRAME_MILLIS = 16;
+
+    private final ArrayList<Drawer> mDrawers = new ArrayList<Drawer>();
+    private ArrayList<Drawer> mSliding = new ArrayList<Drawer>();
+    // Swapped with mSliding on every frame so that stepping never allocates
+    private ArrayList<Drawer> mStepping = new ArrayList<Drawer>();
+    private boolean mExclusive = true;
+    private boolean mFrameScheduled = false;
+    private Choreographer.FrameCallback mFrameCallback;
+    private Handler mHandler;
+    private final Runnable mFrameRunnable = new Runnable() {
+        @Override
+        public void run() {
+            doFrame(System.nanoTime());
+        }
+    };
+
+    /**
+     * Adds a drawer to the group. A drawer can only be in one group at a time.
+     */
+    @SuppressWarnings("unused")
+    public void add(Drawer drawer) {
+        if (drawer.getGroup() == this) {
+            return;
+        }
+        if (drawer.getGroup() != null) {
+            throw new IllegalStateException("Drawer is already in another group");
+        }
+
+        mDrawers.add(drawer);
+        drawer.setGroup(this);
+    }
+
+    /**
+     * Removes a drawer from the group; a slide the group was running for it is finished immediately
+     */
+    @SuppressWarnings("unused")
+    public void remove(Drawer drawer) {
+        if (mDrawers.remove(drawer)) {
+            mSliding.remove(drawer);
+            drawer.setGroup(null);
+        }
+    }
+
+    /**
+     * @param exclusive True to close every other member whenever one is opened, which is the default
+     */
+    @SuppressWarnings("unused")
+    public void setExclusive(boolean exclusive) {
+        mExclusive = exclusive;
+    }
+
+    /**
+     * @return True if opening a member closes the others
+     */
+    @SuppressWarnings("unused")
+    public boolean isExclusive() {
+        return mExclusive;
+    }
+
+    /**
+     * Opens the given member, closing the others if the group is exclusive. The slides all start on the same frame.
+     */
+    @SuppressWarnings("unused")
+    public void open(Drawer drawer, boolean animate) {
+        if (drawer.getGroup() != this) {
+            throw new IllegalArgumentException("Drawer is not in this group");
+        }
+        drawer.open(animate, true);
+    }
+
+    /**
+     * Opens every member; only allowed when the group is not exclusive
+     */
+    @SuppressWarnings("unused")
+    public void openAll(boolean animate) {
+        if (mExclusive) {
+            throw new IllegalStateException("An exclusive group can only have one drawer open");
+        }
+        for (int i = 0; i < mDrawers.size(); i++) {
+            mDrawers.get(i).open(animate, true);
+        }
+    }
+
+    /**
+     * Closes every member. The slides all start on the same frame.
+     */
+    @SuppressWarnings("unused")
+    public void closeAll(boolean animate) {
+        for (int i = 0; i < mDrawers.size(); i++) {
+            mDrawers.get(i).close(animate, true);
+        }
+    }
+
+    /**
+     * Called by a member as it starts opening, before it notifies its own listeners
+     */
+    void onMemberOpening(Drawer opening, boolean animate) {
+        if (!mExclusive) {
+            return;
+        }
+        for (int i = 0; i < mDrawers.size(); i++) {
+            Drawer drawer = mDrawers.get(i);
+            if (drawer != opening) {
+                drawer.close(animate, true);
+            }
+        }
+    }
+
+    /**
+     * Called by a member that has started a slide for the group to step
+     */
+    void scheduleSlide(Drawer drawer) {
+        if (!mSliding.contains(drawer)) {
+            mSliding.add(drawer);
+        }
+        scheduleFrame();
+    }
+
+    private void scheduleFrame() {
+        if (mFrameScheduled) {
+            return;
+        }
+        mFrameScheduled = true;
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            if (mFrameCallback == null) {
+                mFrameCallback = new Choreographer.FrameCallback() {
+                    @Override
+                    public void doFrame(long frameTimeNanos) {
+                        DrawerGroup.this.doFrame(frameTimeNanos);
+                    }
+                };
+            }
+            Choreographer.getInstance().postFrameCallback(mFrameCallback);
+        } else {
+            if (mHandler == null) {
+                mHandler = new Handler(Looper.getMainLooper());
+            }
+            mHandler.postDelayed(mFrameRunnable, FALLBACK_FRAME_MILLIS);
+        }
+    }
+
+    /**
+     * Steps every sliding member with the same frame time, dropping those that have settled or been interrupted
+     */
+    private void doFrame(long frameTimeNanos) {
+        mFrameScheduled = false;
+        // Members are stepped from a separate list, so one whose listeners start a new slide while it settles is
+        // simply scheduled again
+        ArrayList<Drawer> stepping = mSliding;
+        mSliding = mStepping;
+        mStepping = stepping;
+        for (int i = 0; i < stepping.size(); i++) {
+            Drawer drawer = stepping.get(i);
+            if (drawer.stepGroupSlide(frameTimeNanos)) {
+                scheduleSlide(drawer);
+            }
+        }
+        stepping.clear();
+    }
+}
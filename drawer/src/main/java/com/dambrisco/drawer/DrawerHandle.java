@@ -0,0 +1,261 @@
+package com.dambrisco.drawer;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.drawable.Drawable;
+import android.support.annotation.NonNull;
+import android.text.BoringLayout;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.view.Gravity;
+import android.view.View;
+import android.widget.FrameLayout;
+
+/**
+ * Drawer handle which draws its open and closed states straight onto the canvas. Views set through
+ * {@link Drawer#setOpenHandle(View)} and {@link Drawer#setClosedHandle(View)} are still hosted as children.
+ */
+class DrawerHandle extends FrameLayout {
+    private final HandleState mOpen = new HandleState();
+    private final HandleState mClosed = new HandleState();
+    private int mContentOffset;
+    private boolean mCrossfade = false;
+    private int mOpenAlpha = 255;
+
+    DrawerHandle(Context context) {
+        super(context);
+        setWillNotDraw(false);
+    }
+
+    /**
+     * Vertical offset applied to the centered handle states
+     */
+    void setContentOffset(int contentOffset) {
+        mContentOffset = contentOffset;
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * @param crossfade True to fade between the open and closed states as the drawer slides, false to flip at the
+     *                  halfway point
+     */
+    void setCrossfade(boolean crossfade) {
+        mCrossfade = crossfade;
+    }
+
+    boolean isCrossfade() {
+        return mCrossfade;
+    }
+
+    void setOpenDrawable(Drawable drawable) {
+        setDrawable(mOpen, drawable);
+    }
+
+    void setClosedDrawable(Drawable drawable) {
+        setDrawable(mClosed, drawable);
+    }
+
+    void setOpenText(CharSequence text, int color, float textSize) {
+        setText(mOpen, text, color, textSize);
+    }
+
+    void setClosedText(CharSequence text, int color, float textSize) {
+        setText(mClosed, text, color, textSize);
+    }
+
+    void setOpenView(View view) {
+        setView(mOpen, view);
+    }
+
+    void setClosedView(View view) {
+        setView(mClosed, view);
+    }
+
+    /**
+     * Updates which state is shown; only redraws when the visible result actually changes
+     *
+     * @param percent Drawer translation percent, 1 is open and 0 is closed
+     */
+    void setVisiblePercent(float percent) {
+        int openAlpha;
+        if (mCrossfade) {
+            openAlpha = Math.round(255 * Math.max(0, Math.min(1, percent)));
+        } else {
+            openAlpha = percent > 0.5 ? 255 : 0;
+        }
+        if (openAlpha == mOpenAlpha) {
+            return;
+        }
+        mOpenAlpha = openAlpha;
+
+        if (mOpen.mView != null) {
+            mOpen.mView.setAlpha(openAlpha / 255f);
+        }
+        if (mClosed.mView != null) {
+            mClosed.mView.setAlpha(1 - openAlpha / 255f);
+        }
+        if (mOpen.isDrawn() || mClosed.isDrawn()) {
+            invalidate();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+
+        int width = Math.max(mOpen.getWidth(), mClosed.getWidth()) + getPaddingLeft() + getPaddingRight();
+        int height = Math.max(mOpen.getHeight(), mClosed.getHeight()) + mContentOffset + getPaddingTop()
+                + getPaddingBottom();
+        if (width > getMeasuredWidth() || height > getMeasuredHeight()) {
+            setMeasuredDimension(resolveSize(Math.max(width, getMeasuredWidth()), widthMeasureSpec),
+                    resolveSize(Math.max(height, getMeasuredHeight()), heightMeasureSpec));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        super.onDraw(canvas);
+        if (mOpenAlpha < 255) {
+            drawState(canvas, mClosed, 255 - mOpenAlpha);
+        }
+        if (mOpenAlpha > 0) {
+            drawState(canvas, mOpen, mOpenAlpha);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean verifyDrawable(@NonNull Drawable who) {
+        return who == mOpen.mDrawable || who == mClosed.mDrawable || super.verifyDrawable(who);
+    }
+
+    private void drawState(Canvas canvas, HandleState state, int alpha) {
+        if (!state.isDrawn()) {
+            return;
+        }
+
+        int width = state.getWidth();
+        int height = state.getHeight();
+        int innerWidth = getWidth() - getPaddingLeft() - getPaddingRight();
+        int innerHeight = getHeight() - getPaddingTop() - getPaddingBottom();
+        int left = getPaddingLeft() + (innerWidth - width) / 2;
+        int top = getPaddingTop() + (innerHeight - height) / 2 + mContentOffset;
+
+        if (state.mDrawable != null) {
+            state.mDrawable.setBounds(left, top, left + width, top + height);
+            if (mCrossfade) {
+                state.mDrawable.setAlpha(alpha);
+            }
+            state.mDrawable.draw(canvas);
+        } else {
+            if (mCrossfade) {
+                state.mPaint.setAlpha(Math.round(Color.alpha(state.mColor) * (alpha / 255f)));
+            }
+            int saveCount = canvas.save();
+            canvas.translate(left, top);
+            state.mLayout.draw(canvas);
+            canvas.restoreToCount(saveCount);
+        }
+    }
+
+    private void setDrawable(HandleState state, Drawable drawable) {
+        state.clear(this);
+        if (drawable != null) {
+            // Mutated so that crossfading never changes the alpha of a drawable shared through the resources
+            state.mDrawable = drawable.mutate();
+            state.mDrawable.setCallback(this);
+        }
+        requestLayout();
+        invalidate();
+    }
+
+    private void setText(HandleState state, CharSequence text, int color, float textSize) {
+        state.clear(this);
+        if (text != null) {
+            TextPaint paint = new TextPaint(TextPaint.ANTI_ALIAS_FLAG);
+            paint.setColor(color);
+            paint.setTextSize(textSize);
+            state.mPaint = paint;
+            state.mColor = color;
+            state.mLayout = makeLayout(text, paint);
+        }
+        requestLayout();
+        invalidate();
+    }
+
+    private void setView(HandleState state, View view) {
+        state.clear(this);
+        if (view != null) {
+            LayoutParams params = new LayoutParams(LayoutParams.WRAP_CONTENT, LayoutParams.WRAP_CONTENT, Gravity.CENTER);
+            params.topMargin = mContentOffset;
+            state.mView = view;
+            addView(view, params);
+            view.setAlpha(state == mOpen ? mOpenAlpha / 255f : 1 - mOpenAlpha / 255f);
+        }
+        requestLayout();
+        invalidate();
+    }
+
+    private static Layout makeLayout(CharSequence text, TextPaint paint) {
+        BoringLayout.Metrics metrics = BoringLayout.isBoring(text, paint);
+        if (metrics != null) {
+            return BoringLayout.make(text, paint, metrics.width, Layout.Alignment.ALIGN_NORMAL, 1, 0, metrics, true);
+        }
+
+        int width = (int) Math.ceil(Layout.getDesiredWidth(text, paint));
+        return new StaticLayout(text, paint, width, Layout.Alignment.ALIGN_NORMAL, 1, 0, true);
+    }
+
+    /**
+     * What is shown for one of the handle's states: a drawable, a cached text layout, or a legacy child view
+     */
+    private static class HandleState {
+        private Drawable mDrawable;
+        private Layout mLayout;
+        private TextPaint mPaint;
+        private int mColor;
+        private View mView;
+
+        boolean isDrawn() {
+            return mDrawable != null || mLayout != null;
+        }
+
+        int getWidth() {
+            if (mDrawable != null) {
+                return Math.max(0, mDrawable.getIntrinsicWidth());
+            }
+            return mLayout != null ? mLayout.getWidth() : 0;
+        }
+
+        int getHeight() {
+            if (mDrawable != null) {
+                return Math.max(0, mDrawable.getIntrinsicHeight());
+            }
+            return mLayout != null ? mLayout.getHeight() : 0;
+        }
+
+        void clear(DrawerHandle handle) {
+            if (mDrawable != null) {
+                mDrawable.setCallback(null);
+                mDrawable = null;
+            }
+            if (mView != null) {
+                handle.removeView(mView);
+                mView = null;
+            }
+            mLayout = null;
+            mPaint = null;
+        }
+    }
+}
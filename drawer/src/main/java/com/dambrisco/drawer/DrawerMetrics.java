@@ -0,0 +1,210 @@
+package com.dambrisco.drawer;
+
+import android.os.Build;
+import android.os.Trace;
+
+/**
+ * Opt-in performance counters for a {@link Drawer}, enabled with {@link Drawer#setMetricsEnabled(boolean)}. Most
+ * counters describe the latest slide and start over when the next one begins; {@link Snapshot#slideCount} and
+ * {@link Snapshot#maxTouchToMoveMillis} add up until {@link #reset()}. All
+ * recording happens on the UI thread and the counters are not synchronized, so {@link #snapshot()} and
+ * {@link #reset()} must be called on the UI thread too; telemetry on another thread should post to it and pass the
+ * immutable snapshot along.
+ */
+public class DrawerMetrics {
+    /**
+     * Frames further apart than this are counted as late, 1.5 frames at 60 fps
+     */
+    private static final long LATE_FRAME_NANOS = 25000000L;
+
+    private long mSlideCount;
+    private long mFrameCount;
+    private long mLateFrameCount;
+    private long mFrameTimeNanos;
+    private long mMaxFrameTimeNanos;
+    private long mLastFrameNanos;
+    private long mListenerDispatchCount;
+    private long mListenerTimeNanos;
+    private long mMeasureCount;
+    private long mLayoutCount;
+    private long mTouchToMoveMillis = -1;
+    private long mMaxTouchToMoveMillis = -1;
+    private long mTouchDownMillis = -1;
+
+    DrawerMetrics() {
+    }
+
+    /**
+     * @return An immutable copy of the counters recorded so far
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    /**
+     * Clears all counters
+     */
+    public void reset() {
+        mSlideCount = 0;
+        mMaxTouchToMoveMillis = -1;
+        mTouchDownMillis = -1;
+        resetSlide();
+    }
+
+    void onSlideStart() {
+        mSlideCount++;
+        resetSlide();
+    }
+
+    /**
+     * Clears the counters that describe a single slide
+     */
+    private void resetSlide() {
+        mFrameCount = 0;
+        mLateFrameCount = 0;
+        mFrameTimeNanos = 0;
+        mMaxFrameTimeNanos = 0;
+        mLastFrameNanos = 0;
+        mListenerDispatchCount = 0;
+        mListenerTimeNanos = 0;
+        mMeasureCount = 0;
+        mLayoutCount = 0;
+        mTouchToMoveMillis = -1;
+    }
+
+    /**
+     * Starts timing a new opening or closing animation; its first frame only sets the baseline
+     */
+    void onAnimationStart() {
+        mLastFrameNanos = 0;
+    }
+
+    /**
+     * @param frameTimeNanos Time the animation frame started, in the {@link System#nanoTime()} time base
+     */
+    void onAnimationFrame(long frameTimeNanos) {
+        if (mLastFrameNanos != 0) {
+            long frameTime = frameTimeNanos - mLastFrameNanos;
+            mFrameCount++;
+            mFrameTimeNanos += frameTime;
+            mMaxFrameTimeNanos = Math.max(mMaxFrameTimeNanos, frameTime);
+            if (frameTime > LATE_FRAME_NANOS) {
+                mLateFrameCount++;
+            }
+        }
+        mLastFrameNanos = frameTimeNanos;
+    }
+
+    void onListenersDispatched(long startNanos) {
+        mListenerDispatchCount++;
+        mListenerTimeNanos += System.nanoTime() - startNanos;
+    }
+
+    void onMeasure() {
+        mMeasureCount++;
+    }
+
+    void onLayout() {
+        mLayoutCount++;
+    }
+
+    /**
+     * @param eventTime Uptime in milliseconds of the touch-down event
+     */
+    void onTouchDown(long eventTime) {
+        mTouchDownMillis = eventTime;
+    }
+
+    /**
+     * @param eventTime Uptime in milliseconds of the event that first moved the drawer
+     */
+    void onFirstMove(long eventTime) {
+        if (mTouchDownMillis < 0) {
+            return;
+        }
+        mTouchToMoveMillis = eventTime - mTouchDownMillis;
+        mMaxTouchToMoveMillis = Math.max(mMaxTouchToMoveMillis, mTouchToMoveMillis);
+        mTouchDownMillis = -1;
+    }
+
+    static void beginSection(String name) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.beginSection(name);
+        }
+    }
+
+    static void endSection() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.endSection();
+        }
+    }
+
+    /**
+     * Point-in-time copy of a drawer's metrics
+     */
+    public static final class Snapshot {
+        /**
+         * Number of slides, animated or dragged, since the last reset; a drag and the settle that follows it are one
+         * slide
+         */
+        public final long slideCount;
+        /**
+         * Number of frames of the latest opening or closing animation, not counting drags
+         */
+        public final long frameCount;
+        /**
+         * Number of animation frames that took longer than 1.5 frames at 60 fps
+         */
+        public final long lateFrameCount;
+        /**
+         * Total time between animation frames in nanoseconds
+         */
+        public final long frameTimeNanos;
+        /**
+         * Longest time between two animation frames in nanoseconds
+         */
+        public final long maxFrameTimeNanos;
+        /**
+         * Number of times drawer listeners were dispatched to during the latest slide
+         */
+        public final long listenerDispatchCount;
+        /**
+         * Total time spent in drawer listener callbacks during the latest slide in nanoseconds
+         */
+        public final long listenerTimeNanos;
+        /**
+         * Number of times the drawer's own {@link android.view.View#onMeasure(int, int)} ran during the latest slide.
+         * Passes the content starts below the drawer, such as a relayout inside it, do not reach the drawer and are
+         * not counted.
+         */
+        public final long measureCount;
+        /**
+         * Number of times the drawer's own {@link android.view.View#onLayout(boolean, int, int, int, int)} ran during
+         * the latest slide; like {@link #measureCount} it misses passes that stay below the drawer
+         */
+        public final long layoutCount;
+        /**
+         * Time from the touch-down on the handle to the first movement of the drawer in milliseconds, -1 if the
+         * latest slide was not a drag
+         */
+        public final long touchToMoveMillis;
+        /**
+         * Longest time from touch-down to first movement in milliseconds, -1 if the drawer has not been dragged
+         */
+        public final long maxTouchToMoveMillis;
+
+        private Snapshot(DrawerMetrics metrics) {
+            slideCount = metrics.mSlideCount;
+            frameCount = metrics.mFrameCount;
+            lateFrameCount = metrics.mLateFrameCount;
+            frameTimeNanos = metrics.mFrameTimeNanos;
+            maxFrameTimeNanos = metrics.mMaxFrameTimeNanos;
+            listenerDispatchCount = metrics.mListenerDispatchCount;
+            listenerTimeNanos = metrics.mListenerTimeNanos;
+            measureCount = metrics.mMeasureCount;
+            layoutCount = metrics.mLayoutCount;
+            touchToMoveMillis = metrics.mTouchToMoveMillis;
+            maxTouchToMoveMillis = metrics.mMaxTouchToMoveMillis;
+        }
+    }
+}
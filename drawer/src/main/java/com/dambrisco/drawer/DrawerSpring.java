@@ -0,0 +1,115 @@
+package com.dambrisco.drawer;
+
+/**
+ * Critically damped spring used to settle the drawer. Positions are translation percents and velocities are
+ * percents per second; the motion is solved in closed form so it can be sampled at any time and retargeted from
+ * its exact position and velocity. Targets are always an end of the drawer's range, so a motion fast enough to carry
+ * past its target ends as it reaches it rather than being held against the end while the spring comes back.
+ */
+final class DrawerSpring {
+    /**
+     * Multiple of 1 / omega after which a spring released at rest is within 1% of its target
+     */
+    static final float SETTLE_FACTOR = 6.64f;
+
+    private static final float REST_DISPLACEMENT = 0.002f;
+    private static final float REST_VELOCITY = 0.02f;
+    private static final float SETTLE_PRECISION = 0.001f;
+    private static final float MAX_SETTLE_TIME = 10;
+
+    private float mTarget;
+    private float mDisplacement;
+    private float mVelocity;
+    private float mOmega;
+    private long mSettleDuration;
+
+    /**
+     * Starts a new motion
+     *
+     * @param position Current translation percent
+     * @param velocity Current velocity in percent per second
+     * @param target   Translation percent to settle on
+     * @param duration Time in milliseconds a motion starting at rest takes to settle, 0 to snap
+     */
+    void start(float position, float velocity, float target, int duration) {
+        mTarget = target;
+        mDisplacement = position - target;
+        mVelocity = velocity;
+        mOmega = duration > 0 ? SETTLE_FACTOR * 1000f / duration : 0;
+        // Searched for once per motion, since it is read on every frame
+        mSettleDuration = computeSettleDuration();
+    }
+
+    float getTarget() {
+        return mTarget;
+    }
+
+    /**
+     * @param time Seconds since {@link #start(float, float, float, int)}
+     */
+    float getPosition(float time) {
+        if (mOmega == 0) {
+            return mTarget;
+        }
+        return mTarget + (mDisplacement + (mVelocity + mOmega * mDisplacement) * time)
+                * (float) Math.exp(-mOmega * time);
+    }
+
+    /**
+     * @param time Seconds since {@link #start(float, float, float, int)}
+     */
+    float getVelocity(float time) {
+        if (mOmega == 0) {
+            return 0;
+        }
+        return (mVelocity - mOmega * (mVelocity + mOmega * mDisplacement) * time) * (float) Math.exp(-mOmega * time);
+    }
+
+    /**
+     * @return Milliseconds until the motion comes to rest
+     */
+    long getSettleDuration() {
+        return mSettleDuration;
+    }
+
+    private long computeSettleDuration() {
+        if (mOmega == 0 || mDisplacement == 0) {
+            return 0;
+        }
+
+        // The displacement is (mDisplacement + slope * t) * e^(-omega * t), which reaches zero only where the
+        // bracket does
+        float slope = mVelocity + mOmega * mDisplacement;
+        float crossing = slope != 0 ? -mDisplacement / slope : -1;
+        if (crossing > 0) {
+            return Math.round(crossing * 1000);
+        }
+
+        // Past the last turn of the position and of the velocity both only shrink towards rest, so the moment they
+        // get there is found by bisection
+        float low = 0;
+        if (slope != 0) {
+            float velocityZero = mVelocity / (mOmega * slope);
+            float velocityTurn = (slope + mVelocity) / (mOmega * slope);
+            low = Math.max(0, Math.max(velocityZero, velocityTurn));
+        }
+        float high = MAX_SETTLE_TIME;
+        if (low >= high || isAtRest(low)) {
+            return (long) Math.ceil(Math.min(low, high) * 1000);
+        }
+        while (high - low > SETTLE_PRECISION) {
+            float middle = (low + high) / 2;
+            if (isAtRest(middle)) {
+                high = middle;
+            } else {
+                low = middle;
+            }
+        }
+        return (long) Math.ceil(high * 1000);
+    }
+
+    private boolean isAtRest(float time) {
+        return Math.abs(getPosition(time) - mTarget) <= REST_DISPLACEMENT
+                && Math.abs(getVelocity(time)) <= REST_VELOCITY;
+    }
+}
@@ -0,0 +1,120 @@
+package com.dambrisco.drawer;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Delivers a listener's state events on an executor, one at a time and in the order they happened, while
+ * {@link Drawer.DrawerListener#onVisiblePercentChange(float)} is still called directly on the UI thread. Events are
+ * queued here rather than submitted one by one, so ordering holds even on an executor with several threads.
+ */
+final class ExecutorDrawerListener implements Drawer.DrawerListener {
+    private final Drawer.DrawerListener mDelegate;
+    private final Executor mExecutor;
+    private final ArrayDeque<Runnable> mPending = new ArrayDeque<Runnable>();
+    private Runnable mActive;
+    private volatile boolean mRemoved = false;
+
+    ExecutorDrawerListener(Drawer.DrawerListener delegate, Executor executor) {
+        mDelegate = delegate;
+        mExecutor = executor;
+    }
+
+    Drawer.DrawerListener getDelegate() {
+        return mDelegate;
+    }
+
+    /**
+     * Drops any events that have not been delivered yet
+     */
+    void onRemoved() {
+        mRemoved = true;
+        synchronized (this) {
+            mPending.clear();
+        }
+    }
+
+    @Override
+    public void onVisiblePercentChange(float percent) {
+        mDelegate.onVisiblePercentChange(percent);
+    }
+
+    @Override
+    public void onDrawerStateChanged(final Drawer.DrawerState state) {
+        // The state is captured here, so every event describes the drawer as it was when the event happened
+        enqueue(new Runnable() {
+            @Override
+            public void run() {
+                mDelegate.onDrawerStateChanged(state);
+            }
+        });
+    }
+
+    @Override
+    public void onOpen() {
+        enqueue(new Runnable() {
+            @Override
+            public void run() {
+                mDelegate.onOpen();
+            }
+        });
+    }
+
+    @Override
+    public void onClose() {
+        enqueue(new Runnable() {
+            @Override
+            public void run() {
+                mDelegate.onClose();
+            }
+        });
+    }
+
+    private void enqueue(final Runnable event) {
+        Runnable next;
+        synchronized (this) {
+            mPending.offer(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        if (!mRemoved) {
+                            event.run();
+                        }
+                    } finally {
+                        scheduleNext();
+                    }
+                }
+            });
+            if (mActive != null) {
+                return;
+            }
+            next = mActive = mPending.poll();
+        }
+        execute(next);
+    }
+
+    private void scheduleNext() {
+        Runnable next;
+        synchronized (this) {
+            next = mActive = mPending.poll();
+        }
+        if (next != null) {
+            execute(next);
+        }
+    }
+
+    /**
+     * Hands an event to the executor outside the lock, so a direct executor does not run listener code while holding
+     * it. An event the executor rejects is dropped; later events stay queued and the next one to arrive tries again.
+     */
+    private void execute(Runnable next) {
+        try {
+            mExecutor.execute(next);
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                mActive = null;
+            }
+        }
+    }
+}
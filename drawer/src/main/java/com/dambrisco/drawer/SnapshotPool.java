@@ -0,0 +1,112 @@
+package com.dambrisco.drawer;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.os.Build;
+
+import java.util.ArrayList;
+
+/**
+ * Bitmaps for {@link Drawer.RenderMode#SNAPSHOT}, shared by every drawer in the process. Bitmaps in use and bitmaps
+ * kept for reuse together stay within a fixed share of the heap: idle ones are recycled least recently released
+ * first to make room, and a request that would still not fit is refused. Idle bitmaps are recycled when the system
+ * runs low on memory, whatever the drawers that used them are set to. Only used from the UI thread.
+ */
+final class SnapshotPool {
+    private static final long MAX_BYTES = Runtime.getRuntime().maxMemory() / 8;
+    // Least recently released first
+    private static final ArrayList<Bitmap> sBitmaps = new ArrayList<Bitmap>();
+    private static long sBytes = 0;
+    private static long sAcquiredBytes = 0;
+    // Registered with the application once, as the pool lives as long as the process
+    private static ComponentCallbacks2 sTrimCallbacks;
+
+    private SnapshotPool() {
+    }
+
+    /**
+     * @return A bitmap of exactly the given size with undefined contents, or null if it would not fit within the
+     *         limit or could not be allocated
+     */
+    static Bitmap acquire(Context context, int width, int height) {
+        registerTrimCallbacks(context);
+        for (int i = sBitmaps.size() - 1; i >= 0; i--) {
+            Bitmap bitmap = sBitmaps.get(i);
+            if (bitmap.getWidth() == width && bitmap.getHeight() == height) {
+                sBitmaps.remove(i);
+                sBytes -= sizeOf(bitmap);
+                sAcquiredBytes += sizeOf(bitmap);
+                return bitmap;
+            }
+        }
+
+        long bytes = (long) width * height * 4;
+        if (sAcquiredBytes + bytes > MAX_BYTES) {
+            return null;
+        }
+        trimTo(MAX_BYTES - sAcquiredBytes - bytes);
+        try {
+            Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            sAcquiredBytes += sizeOf(bitmap);
+            return bitmap;
+        } catch (OutOfMemoryError e) {
+            // Not worth failing over; the drawer simply slides its live content instead
+            return null;
+        }
+    }
+
+    /**
+     * Returns a bitmap to the pool for reuse
+     */
+    static void release(Bitmap bitmap) {
+        sAcquiredBytes -= sizeOf(bitmap);
+        sBitmaps.add(bitmap);
+        sBytes += sizeOf(bitmap);
+        trimTo(MAX_BYTES - sAcquiredBytes);
+    }
+
+    /**
+     * Recycles every idle bitmap; bitmaps in use are returned through {@link #release(Bitmap)} as usual
+     */
+    static void clear() {
+        trimTo(0);
+    }
+
+    private static void registerTrimCallbacks(Context context) {
+        if (sTrimCallbacks != null || Build.VERSION.SDK_INT < Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
+            return;
+        }
+
+        sTrimCallbacks = new ComponentCallbacks2() {
+            @Override
+            public void onTrimMemory(int level) {
+                if (level >= TRIM_MEMORY_RUNNING_LOW) {
+                    clear();
+                }
+            }
+
+            @Override
+            public void onConfigurationChanged(Configuration newConfig) { }
+
+            @Override
+            public void onLowMemory() {
+                clear();
+            }
+        };
+        context.getApplicationContext().registerComponentCallbacks(sTrimCallbacks);
+    }
+
+    private static void trimTo(long maxBytes) {
+        while (sBytes > maxBytes && !sBitmaps.isEmpty()) {
+            Bitmap bitmap = sBitmaps.remove(0);
+            sBytes -= sizeOf(bitmap);
+            bitmap.recycle();
+        }
+    }
+
+    private static long sizeOf(Bitmap bitmap) {
+        return (long) bitmap.getRowBytes() * bitmap.getHeight();
+    }
+}
@@ -0,0 +1,101 @@
+package com.dambrisco.drawer;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class ContentLoaderTest {
+    private Context mContext;
+    private ViewGroup mParent;
+    private int mLoadedCount;
+    private final Runnable mOnLoaded = new Runnable() {
+        @Override
+        public void run() {
+            mLoadedCount++;
+        }
+    };
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+        mParent = new FrameLayout(mContext);
+    }
+
+    @Test
+    public void prefetchedContentIsHandedOver() throws InterruptedException {
+        ContentLoader loader = new ContentLoader(new Drawer.ContentFactory() {
+            @Override
+            public View createContent(Context context, ViewGroup parent) {
+                return new View(context);
+            }
+        }, mContext, mParent, mOnLoaded);
+        loader.prefetch();
+        awaitDone(loader);
+
+        ShadowLooper.runUiThreadTasks();
+        assertEquals(1, mLoadedCount);
+        assertNotNull(loader.load());
+    }
+
+    @Test
+    public void failedPrefetchIsNotHandedOverAndThrowsOnLoad() throws InterruptedException {
+        final IllegalStateException failure = new IllegalStateException();
+        ContentLoader loader = new ContentLoader(new Drawer.ContentFactory() {
+            @Override
+            public View createContent(Context context, ViewGroup parent) {
+                throw failure;
+            }
+        }, mContext, mParent, mOnLoaded);
+        loader.prefetch();
+        awaitDone(loader);
+
+        ShadowLooper.runUiThreadTasks();
+        assertEquals(0, mLoadedCount);
+        try {
+            loader.load();
+            fail();
+        } catch (IllegalStateException e) {
+            assertSame(failure, e);
+        }
+    }
+
+    @Test
+    public void cancelledLoadIsNotHandedOver() throws InterruptedException {
+        ContentLoader loader = new ContentLoader(new Drawer.ContentFactory() {
+            @Override
+            public View createContent(Context context, ViewGroup parent) {
+                return new View(context);
+            }
+        }, mContext, mParent, mOnLoaded);
+        loader.cancelLoad();
+
+        ShadowLooper.runUiThreadTasks();
+        assertEquals(0, mLoadedCount);
+    }
+
+    /**
+     * Waits for the background thread to finish, including the hand-over it posts once it is done
+     */
+    private static void awaitDone(ContentLoader loader) throws InterruptedException {
+        for (int i = 0; i < 500 && !loader.isDone(); i++) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(100);
+    }
+}
@@ -0,0 +1,126 @@
+package com.dambrisco.drawer;
+
+import android.content.Context;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowView;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Dragging the handle must be a pure transform update: no measure or layout passes and no redraws of the drawer
+ * itself at touch rate. A drag also ends with the item the drawer is bound to.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DrawerDragTest {
+    private Drawer mDrawer;
+    private int mDrawerMeasureCount;
+    private int mDrawerLayoutCount;
+    private DrawerTestSupport.CountingView mChild;
+
+    @Before
+    public void setUp() {
+        Context context = RuntimeEnvironment.application;
+        mDrawer = new Drawer(context) {
+            @Override
+            protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+                mDrawerMeasureCount++;
+                super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+            }
+
+            @Override
+            protected void onLayout(boolean changed, int l, int t, int r, int b) {
+                mDrawerLayoutCount++;
+                super.onLayout(changed, l, t, r, b);
+            }
+        };
+        mChild = new DrawerTestSupport.CountingView(context, 400);
+        mDrawer.addView(mChild, new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT));
+        DrawerTestSupport.layout(mDrawer);
+    }
+
+    @Test
+    public void dragRunsNoMeasureOrLayoutPasses() {
+        assertEquals(Drawer.DrawerState.CLOSED, mDrawer.getDrawerState());
+        int drawerMeasures = mDrawerMeasureCount;
+        int drawerLayouts = mDrawerLayoutCount;
+        int childMeasures = mChild.mMeasureCount;
+        int childLayouts = mChild.mLayoutCount;
+        View handle = DrawerTestSupport.handle(mDrawer);
+
+        long downTime = 1000;
+        DrawerTestSupport.touch(handle, MotionEvent.ACTION_DOWN, 10, downTime, downTime);
+        DrawerTestSupport.frame(mDrawer);
+        for (int i = 1; i <= 15; i++) {
+            DrawerTestSupport.touch(handle, MotionEvent.ACTION_MOVE, 10 + i * 20, downTime, downTime + i * 16);
+            assertFalse(mDrawer.isLayoutRequested());
+            assertFalse(mChild.isLayoutRequested());
+            DrawerTestSupport.frame(mDrawer);
+        }
+
+        assertTrue(mDrawer.getTranslationPercent() > 0);
+        assertEquals(Drawer.DrawerState.OPENING, mDrawer.getDrawerState());
+        assertEquals(drawerMeasures, mDrawerMeasureCount);
+        assertEquals(drawerLayouts, mDrawerLayoutCount);
+        assertEquals(childMeasures, mChild.mMeasureCount);
+        assertEquals(childLayouts, mChild.mLayoutCount);
+    }
+
+    @Test
+    public void dragRedrawsDrawerOnlyWhenContentIsFullyHiddenOrShown() {
+        View handle = DrawerTestSupport.handle(mDrawer);
+        ShadowView drawer = shadowOf(mDrawer);
+        long downTime = 1000;
+        DrawerTestSupport.touch(handle, MotionEvent.ACTION_DOWN, 10, downTime, downTime);
+        DrawerTestSupport.touch(handle, MotionEvent.ACTION_MOVE, 30, downTime, downTime + 16);
+        DrawerTestSupport.touch(handle, MotionEvent.ACTION_MOVE, 50, downTime, downTime + 32);
+        assertTrue(mDrawer.getTranslationPercent() > 0);
+
+        drawer.clearWasInvalidated();
+        for (int i = 1; i <= 10; i++) {
+            DrawerTestSupport.touch(handle, MotionEvent.ACTION_MOVE, 50 + i * 20, downTime, downTime + 32 + i * 16);
+        }
+        assertTrue(mDrawer.getTranslationPercent() < 1);
+        assertFalse(drawer.wasInvalidated());
+
+        DrawerTestSupport.touch(handle, MotionEvent.ACTION_MOVE, 800, downTime, downTime + 224);
+        assertEquals(1, mDrawer.getTranslationPercent(), 0);
+        assertTrue(drawer.wasInvalidated());
+    }
+
+    @Test
+    public void bindStateDropsHalfFinishedDrag() {
+        View handle = DrawerTestSupport.handle(mDrawer);
+        long downTime = 1000;
+        DrawerTestSupport.touch(handle, MotionEvent.ACTION_DOWN, 10, downTime, downTime);
+        DrawerTestSupport.touch(handle, MotionEvent.ACTION_MOVE, 110, downTime, downTime + 16);
+        DrawerTestSupport.touch(handle, MotionEvent.ACTION_MOVE, 210, downTime, downTime + 32);
+        assertTrue(mDrawer.getTranslationPercent() > 0);
+
+        // A recycled row is rebound while its old gesture is still arriving
+        mDrawer.bindState(Drawer.DrawerState.CLOSED);
+        DrawerTestSupport.touch(handle, MotionEvent.ACTION_MOVE, 310, downTime, downTime + 48);
+        DrawerTestSupport.touch(handle, MotionEvent.ACTION_UP, 310, downTime, downTime + 64);
+        assertEquals(0, mDrawer.getTranslationPercent(), 0);
+        assertEquals(Drawer.DrawerState.CLOSED, mDrawer.getDrawerState());
+
+        // The next gesture starts afresh from its own touch-down
+        downTime = 2000;
+        DrawerTestSupport.touch(handle, MotionEvent.ACTION_DOWN, 10, downTime, downTime);
+        DrawerTestSupport.touch(handle, MotionEvent.ACTION_MOVE, 110, downTime, downTime + 16);
+        assertEquals(Drawer.DrawerState.OPENING, mDrawer.getDrawerState());
+    }
+}
@@ -0,0 +1,166 @@
+package com.dambrisco.drawer;
+
+import android.content.Context;
+import android.util.AttributeSet;
+import android.view.Gravity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+import android.widget.FrameLayout;
+import android.widget.LinearLayout;
+import android.widget.ScrollView;
+import android.widget.TextView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The drawer measures and lays out its content and handle itself. Each test compares it with the nested hierarchy it
+ * replaced, rebuilt here from plain framework views for the same attributes.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DrawerLayoutTest {
+    private Context mContext;
+    private Drawer mDrawer;
+    private DrawerTestSupport.CountingView mChild;
+    private ViewGroup mNested;
+    private DrawerTestSupport.CountingView mNestedChild;
+    private View mNestedLabel;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+        AttributeSet attrs = Robolectric.buildAttributeSet()
+                .addAttribute(R.attr.drawerOpen, "Open")
+                .addAttribute(R.attr.drawerClosed, "Closed")
+                .addAttribute(R.attr.drawerHandleHeight, "48px")
+                .addAttribute(R.attr.drawerInitialState, "open")
+                .build();
+        mDrawer = new Drawer(mContext, attrs);
+        mChild = new DrawerTestSupport.CountingView(mContext, 400);
+        mDrawer.addView(mChild, new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT));
+
+        mNestedChild = new DrawerTestSupport.CountingView(mContext, 400);
+        mNested = createNestedHierarchy(mNestedChild);
+    }
+
+    @Test
+    public void contentIsMeasuredOncePerPass() {
+        int exactly = View.MeasureSpec.EXACTLY;
+        int atMost = View.MeasureSpec.AT_MOST;
+
+        assertEquals(1, measuresPerPass(mDrawer, mChild, exactly));
+        assertEquals(1, measuresPerPass(mNested, mNestedChild, exactly));
+
+        // Wrapping its width, as in a horizontal row, made the nested LinearLayouts measure the content twice
+        assertEquals(1, measuresPerPass(mDrawer, mChild, atMost));
+        assertEquals(2, measuresPerPass(mNested, mNestedChild, atMost));
+    }
+
+    @Test
+    public void hierarchyIsShallower() {
+        DrawerTestSupport.layout(mDrawer);
+        DrawerTestSupport.layout(mNested);
+
+        assertEquals(2, mDrawer.getChildCount());
+        assertEquals(2, depthBelow(mDrawer, mChild));
+        assertEquals(3, depthBelow(mNested, mNestedChild));
+
+        View handle = DrawerTestSupport.handle(mDrawer);
+        assertSame(mDrawer, handle.getParent());
+        // Text labels are drawn by the handle rather than hosted as child views five levels down
+        assertEquals(0, ((ViewGroup) handle).getChildCount());
+        assertEquals(5, depthBelow(mNested, mNestedLabel));
+        assertTrue(countViews(mDrawer) < countViews(mNested));
+    }
+
+    /**
+     * Rebuilds the drawer's original hierarchy: the drawer, a vertical wrapper holding the ScrollView and a handle
+     * wrapper, a horizontal handle container, and a FrameLayout handle with a TextView for each label
+     */
+    private ViewGroup createNestedHierarchy(View child) {
+        LinearLayout drawer = new LinearLayout(mContext);
+        LinearLayout wrapper = new LinearLayout(mContext);
+        wrapper.setOrientation(LinearLayout.VERTICAL);
+        ScrollView content = new ScrollView(mContext);
+        content.addView(child, new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT));
+
+        FrameLayout handle = new FrameLayout(mContext);
+        TextView open = new TextView(mContext);
+        open.setText("Open");
+        TextView closed = new TextView(mContext);
+        closed.setText("Closed");
+        handle.addView(open, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT, Gravity.CENTER));
+        handle.addView(closed, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT, Gravity.CENTER));
+        mNestedLabel = open;
+
+        LinearLayout handleContainer = new LinearLayout(mContext);
+        LinearLayout.LayoutParams handleParams = new LinearLayout.LayoutParams(
+                ViewGroup.LayoutParams.WRAP_CONTENT, 48);
+        handleParams.gravity = Gravity.CENTER_HORIZONTAL;
+        handleContainer.addView(handle, handleParams);
+
+        LinearLayout handleWrapper = new LinearLayout(mContext);
+        handleWrapper.setOrientation(LinearLayout.VERTICAL);
+        handleWrapper.addView(handleContainer);
+        LinearLayout.LayoutParams handleWrapperParams = new LinearLayout.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+        handleWrapperParams.topMargin = -2;
+
+        wrapper.addView(content, new LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.MATCH_PARENT));
+        wrapper.addView(handleWrapper, handleWrapperParams);
+        drawer.addView(wrapper, new LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT));
+        return drawer;
+    }
+
+    /**
+     * @return How many times one measure pass, forced from the content up, measures the content
+     */
+    private static int measuresPerPass(View root, DrawerTestSupport.CountingView child, int widthMode) {
+        child.requestLayout();
+        int before = child.mMeasureCount;
+        root.measure(View.MeasureSpec.makeMeasureSpec(DrawerTestSupport.WIDTH, widthMode),
+                View.MeasureSpec.makeMeasureSpec(DrawerTestSupport.HEIGHT, View.MeasureSpec.EXACTLY));
+        return child.mMeasureCount - before;
+    }
+
+    private static int depthBelow(ViewGroup ancestor, View view) {
+        int depth = 0;
+        ViewParent parent = view.getParent();
+        while (parent != null) {
+            depth++;
+            if (parent == ancestor) {
+                return depth;
+            }
+            parent = parent.getParent();
+        }
+        throw new AssertionError("View is not a descendant");
+    }
+
+    private static int countViews(View view) {
+        int count = 1;
+        if (view instanceof ViewGroup) {
+            ViewGroup group = (ViewGroup) view;
+            for (int i = 0; i < group.getChildCount(); i++) {
+                count += countViews(group.getChildAt(i));
+            }
+        }
+        return count;
+    }
+}
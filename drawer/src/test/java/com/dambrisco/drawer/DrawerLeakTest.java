@@ -0,0 +1,154 @@
+package com.dambrisco.drawer;
+
+import android.app.Activity;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * A drawer removed from its window must become unreachable, whatever it was doing at the time: nothing outside the
+ * view hierarchy, such as the animation thread, the message queue or the application's callbacks, may keep it alive
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DrawerLeakTest {
+    private Activity mActivity;
+    private FrameLayout mRoot;
+    private final ArrayList<String> mEvents = new ArrayList<String>();
+
+    @Before
+    public void setUp() {
+        mActivity = Robolectric.setupActivity(Activity.class);
+        mRoot = new FrameLayout(mActivity);
+        mActivity.setContentView(mRoot);
+        ShadowLooper.idleMainLooper();
+    }
+
+    @Test
+    public void drawerDetachedWhileAnimatingIsCollected() throws InterruptedException {
+        assertCollected(detachWhileAnimating());
+    }
+
+    @Test
+    public void drawerDetachedBeforeFirstLayoutIsCollected() throws InterruptedException {
+        assertCollected(detachBeforeFirstLayout());
+    }
+
+    @Test
+    public void drawerBoundAfterDetachIsCollected() throws InterruptedException {
+        assertCollected(bindAfterDetach());
+    }
+
+    @Test
+    public void detachingDoesNotNotifyListeners() {
+        Drawer drawer = addDrawer();
+        ShadowLooper.idleMainLooper();
+        ShadowLooper.pauseMainLooper();
+        drawer.open();
+        mEvents.clear();
+
+        mRoot.removeView(drawer);
+        assertEquals(0, mEvents.size());
+    }
+
+    @Test
+    public void detachedDrawerDeliversPercentUpdatesDirectly() {
+        Drawer drawer = addDrawer();
+        ShadowLooper.idleMainLooper();
+        mRoot.removeView(drawer);
+        drawer.setPercentUpdatesCoalesced(true);
+        mEvents.clear();
+
+        drawer.setTranslationPercent(0.5f);
+        assertEquals(1, mEvents.size());
+        assertEquals("percent 0.5", mEvents.get(0));
+    }
+
+    // Drawers are only ever referenced from these helpers, so no stack slot keeps them reachable afterwards
+    private WeakReference<Drawer> detachWhileAnimating() {
+        Drawer drawer = addDrawer();
+        ShadowLooper.idleMainLooper();
+        assertNotNull(drawer.getWindowToken());
+
+        // Keeps the animation from running to its end straight away
+        ShadowLooper.pauseMainLooper();
+        drawer.open();
+        assertEquals(Drawer.DrawerState.OPENING, drawer.getDrawerState());
+        mRoot.removeView(drawer);
+        // Detaching settles the slide at the state it was heading for
+        assertEquals(Drawer.DrawerState.OPEN, drawer.getDrawerState());
+        return new WeakReference<Drawer>(drawer);
+    }
+
+    private WeakReference<Drawer> detachBeforeFirstLayout() {
+        Drawer drawer = addDrawer();
+        assertNotNull(drawer.getWindowToken());
+        mRoot.removeView(drawer);
+        return new WeakReference<Drawer>(drawer);
+    }
+
+    private WeakReference<Drawer> bindAfterDetach() {
+        Drawer drawer = addDrawer();
+        drawer.setContentEviction(true, 1000);
+        drawer.setPercentUpdatesCoalesced(true);
+        ShadowLooper.idleMainLooper();
+        mRoot.removeView(drawer);
+        // A recycled row is rebound before it is attached again, and may never be
+        drawer.bindState(Drawer.DrawerState.CLOSED);
+        drawer.setTranslationPercent(0.5f);
+        return new WeakReference<Drawer>(drawer);
+    }
+
+    private Drawer addDrawer() {
+        Drawer drawer = new Drawer(mActivity);
+        drawer.addView(new DrawerTestSupport.CountingView(mActivity, 400), new ViewGroup.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+        drawer.addDrawerListener(new Drawer.DrawerListener() {
+            @Override
+            public void onVisiblePercentChange(float percent) {
+                mEvents.add("percent " + percent);
+            }
+
+            @Override
+            public void onDrawerStateChanged(Drawer.DrawerState state) {
+                mEvents.add("state " + state);
+            }
+
+            @Override
+            public void onOpen() {
+                mEvents.add("open");
+            }
+
+            @Override
+            public void onClose() {
+                mEvents.add("close");
+            }
+        });
+        mRoot.addView(drawer, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.MATCH_PARENT));
+        return drawer;
+    }
+
+    private static void assertCollected(WeakReference<?> reference) throws InterruptedException {
+        for (int i = 0; i < 20 && reference.get() != null; i++) {
+            System.gc();
+            System.runFinalization();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get());
+    }
+}
@@ -0,0 +1,91 @@
+package com.dambrisco.drawer;
+
+import android.app.Activity;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Coalesced percent updates are delivered once per frame with the latest percent
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DrawerListenerTest {
+    private Drawer mDrawer;
+    private final ArrayList<Float> mPercents = new ArrayList<Float>();
+
+    @Before
+    public void setUp() {
+        // Attached, as a detached drawer has no frames and delivers every update directly
+        Activity activity = Robolectric.setupActivity(Activity.class);
+        FrameLayout root = new FrameLayout(activity);
+        activity.setContentView(root);
+        mDrawer = new Drawer(activity);
+        mDrawer.addView(new DrawerTestSupport.CountingView(activity, 400), new ViewGroup.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+        root.addView(mDrawer);
+        ShadowLooper.idleMainLooper();
+        DrawerTestSupport.layout(mDrawer);
+        mDrawer.addDrawerListener(new Drawer.DrawerListener() {
+            @Override
+            public void onVisiblePercentChange(float percent) {
+                mPercents.add(percent);
+            }
+
+            @Override
+            public void onDrawerStateChanged(Drawer.DrawerState state) { }
+
+            @Override
+            public void onOpen() { }
+
+            @Override
+            public void onClose() { }
+        });
+        ShadowLooper.pauseMainLooper();
+    }
+
+    @Test
+    public void coalescedUpdatesArriveOncePerFrame() {
+        mDrawer.setPercentUpdatesCoalesced(true);
+        mDrawer.setTranslationPercent(0.2f);
+        mDrawer.setTranslationPercent(0.3f);
+        mDrawer.setTranslationPercent(0.4f);
+        assertEquals(0, mPercents.size());
+
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        assertEquals(1, mPercents.size());
+        assertEquals(0.4f, mPercents.get(0), 0);
+
+        mDrawer.setTranslationPercent(0.5f);
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        assertEquals(2, mPercents.size());
+        assertEquals(0.5f, mPercents.get(1), 0);
+    }
+
+    @Test
+    public void uncoalescedUpdatesArriveImmediately() {
+        mDrawer.setTranslationPercent(0.2f);
+        mDrawer.setTranslationPercent(0.3f);
+        assertEquals(2, mPercents.size());
+    }
+
+    @Test
+    public void bindStateDropsPendingUpdate() {
+        mDrawer.setPercentUpdatesCoalesced(true);
+        mDrawer.setTranslationPercent(0.4f);
+        mDrawer.bindState(Drawer.DrawerState.OPEN);
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        assertEquals(0, mPercents.size());
+    }
+}
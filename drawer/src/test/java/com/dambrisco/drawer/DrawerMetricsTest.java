@@ -0,0 +1,71 @@
+package com.dambrisco.drawer;
+
+import android.content.Context;
+import android.view.ViewGroup;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Metrics describe the latest slide, with animation frames timed by the frame callbacks that drive them
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DrawerMetricsTest {
+    private Drawer mDrawer;
+
+    @Before
+    public void setUp() {
+        Context context = RuntimeEnvironment.application;
+        mDrawer = new Drawer(context);
+        mDrawer.addView(new DrawerTestSupport.CountingView(context, 400), new ViewGroup.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+        DrawerTestSupport.layout(mDrawer);
+        mDrawer.setMetricsEnabled(true);
+        ShadowLooper.pauseMainLooper();
+    }
+
+    @Test
+    public void animationFramesAreTimed() {
+        mDrawer.open();
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        assertEquals(Drawer.DrawerState.OPEN, mDrawer.getDrawerState());
+
+        DrawerMetrics.Snapshot snapshot = mDrawer.getMetrics().snapshot();
+        assertEquals(1, snapshot.slideCount);
+        assertTrue(snapshot.frameCount > 0);
+        assertTrue(snapshot.frameTimeNanos > 0);
+        assertTrue(snapshot.maxFrameTimeNanos <= snapshot.frameTimeNanos);
+    }
+
+    @Test
+    public void countersStartOverWithEachSlide() {
+        mDrawer.open();
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        mDrawer.requestLayout();
+        DrawerTestSupport.layout(mDrawer);
+        DrawerMetrics.Snapshot opened = mDrawer.getMetrics().snapshot();
+        assertTrue(opened.frameCount > 0);
+        assertTrue(opened.listenerDispatchCount > 0);
+        assertTrue(opened.measureCount > 0);
+
+        mDrawer.close();
+        DrawerMetrics.Snapshot closing = mDrawer.getMetrics().snapshot();
+        assertEquals(2, closing.slideCount);
+        assertEquals(0, closing.frameCount);
+        assertEquals(0, closing.frameTimeNanos);
+        assertEquals(0, closing.measureCount);
+        assertEquals(0, closing.layoutCount);
+
+        mDrawer.getMetrics().reset();
+        assertEquals(0, mDrawer.getMetrics().snapshot().slideCount);
+    }
+}
@@ -0,0 +1,78 @@
+package com.dambrisco.drawer;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.SurfaceView;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * In snapshot mode the sliding content is drawn from a bitmap taken as the slide starts, unless it shows a surface
+ * that a bitmap cannot capture
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DrawerSnapshotTest {
+    // How the shadow canvas records drawing a bitmap the size of the content
+    private static final String SNAPSHOT = "Bitmap (" + DrawerTestSupport.WIDTH + " x 400) at";
+
+    private Context mContext;
+    private Drawer mDrawer;
+    private FrameLayout mChild;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+        mDrawer = new Drawer(mContext);
+        mDrawer.setRenderMode(Drawer.RenderMode.SNAPSHOT);
+        mChild = new FrameLayout(mContext);
+        mChild.setMinimumHeight(400);
+        mDrawer.addView(mChild, new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT));
+        ShadowLooper.pauseMainLooper();
+    }
+
+    @Test
+    public void slidingContentIsDrawnFromSnapshot() {
+        DrawerTestSupport.layout(mDrawer);
+        mDrawer.open();
+        mDrawer.setTranslationPercent(0.5f);
+        assertTrue(drawContent().contains(SNAPSHOT));
+    }
+
+    @Test
+    public void contentWithSurfaceIsDrawnLive() {
+        FrameLayout container = new FrameLayout(mContext);
+        container.addView(new SurfaceView(mContext));
+        mChild.addView(container);
+        DrawerTestSupport.layout(mDrawer);
+
+        mDrawer.open();
+        mDrawer.setTranslationPercent(0.5f);
+        assertFalse(drawContent().contains(SNAPSHOT));
+    }
+
+    /**
+     * @return What the drawer drew for its content
+     */
+    private String drawContent() {
+        Canvas canvas = new Canvas(Bitmap.createBitmap(DrawerTestSupport.WIDTH, DrawerTestSupport.HEIGHT,
+                Bitmap.Config.ARGB_8888));
+        mDrawer.drawChild(canvas, (View) mChild.getParent(), 0);
+        return shadowOf(canvas).getDescription();
+    }
+}
@@ -0,0 +1,68 @@
+package com.dambrisco.drawer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DrawerSpringTest {
+    private static final int DURATION = 250;
+
+    @Test
+    public void releaseAtRestSettlesWithinDuration() {
+        DrawerSpring spring = new DrawerSpring();
+        spring.start(0, 0, 1, DURATION);
+
+        long settle = spring.getSettleDuration();
+        // The duration brings a motion from rest within 1% of its target; resting takes a little longer
+        assertTrue(settle >= DURATION && settle < DURATION * 2);
+        assertEquals(1, spring.getPosition(settle / 1000f), 0.002f);
+        // Not at rest a few milliseconds earlier
+        assertTrue(Math.abs(spring.getVelocity((settle - 10) / 1000f)) > 0.02f
+                || Math.abs(spring.getPosition((settle - 10) / 1000f) - 1) > 0.002f);
+    }
+
+    @Test
+    public void flingThatWouldOvershootEndsAtTarget() {
+        DrawerSpring spring = new DrawerSpring();
+        spring.start(0.5f, 20, 1, DURATION);
+
+        long settle = spring.getSettleDuration();
+        assertTrue(settle < DURATION / 2);
+        assertEquals(1, spring.getPosition(settle / 1000f), 0.01f);
+        for (long time = 0; time < settle; time += 4) {
+            assertTrue(spring.getPosition(time / 1000f) <= 1);
+        }
+    }
+
+    @Test
+    public void slowReleaseTowardsTargetDoesNotOvershoot() {
+        DrawerSpring spring = new DrawerSpring();
+        spring.start(0.8f, -1, 0, DURATION);
+
+        long settle = spring.getSettleDuration();
+        for (long time = 0; time <= settle; time += 4) {
+            assertTrue(spring.getPosition(time / 1000f) >= 0);
+        }
+        assertEquals(0, spring.getPosition(settle / 1000f), 0.002f);
+    }
+
+    @Test
+    public void releaseAwayFromTargetTurnsBack() {
+        DrawerSpring spring = new DrawerSpring();
+        spring.start(0.5f, -20, 1, DURATION);
+
+        long settle = spring.getSettleDuration();
+        assertTrue(spring.getPosition(0.01f) < 0.5f);
+        assertEquals(1, spring.getPosition(settle / 1000f), 0.002f);
+    }
+
+    @Test
+    public void zeroDurationSnaps() {
+        DrawerSpring spring = new DrawerSpring();
+        spring.start(0.3f, 5, 1, 0);
+
+        assertEquals(0, spring.getSettleDuration());
+        assertEquals(1, spring.getPosition(0), 0);
+    }
+}
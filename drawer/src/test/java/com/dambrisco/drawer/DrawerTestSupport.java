@@ -0,0 +1,74 @@
+package com.dambrisco.drawer;
+
+import android.content.Context;
+import android.view.MotionEvent;
+import android.view.View;
+
+/**
+ * Drives drawers without a window: explicit measure and layout passes stand in for traversals, and touches are
+ * dispatched straight to the view that handles them
+ */
+final class DrawerTestSupport {
+    static final int WIDTH = 480;
+    static final int HEIGHT = 800;
+
+    private DrawerTestSupport() {
+    }
+
+    /**
+     * Measures and lays the view out at the test screen size
+     */
+    static void layout(View view) {
+        view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    /**
+     * Runs the layout pass a traversal would run, only if one was requested
+     */
+    static void frame(View view) {
+        if (view.isLayoutRequested()) {
+            layout(view);
+        }
+    }
+
+    /**
+     * @return The drawer's handle, which receives the drag gestures
+     */
+    static View handle(Drawer drawer) {
+        return drawer.getChildAt(1);
+    }
+
+    static void touch(View target, int action, float y, long downTime, long eventTime) {
+        MotionEvent event = MotionEvent.obtain(downTime, eventTime, action, 10, y, 0);
+        target.dispatchTouchEvent(event);
+        event.recycle();
+    }
+
+    /**
+     * Content child that counts its measure and layout passes. Its height is a minimum, which the drawer's
+     * ScrollView respects where it would ignore a fixed layout height.
+     */
+    static class CountingView extends View {
+        int mMeasureCount;
+        int mLayoutCount;
+
+        CountingView(Context context, int height) {
+            super(context);
+            setMinimumHeight(height);
+        }
+
+        @Override
+        protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+            mMeasureCount++;
+            super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        }
+
+        @Override
+        protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+            mLayoutCount++;
+            super.onLayout(changed, left, top, right, bottom);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.dambrisco.drawer;
+
+import android.content.Context;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * While the drawer is closed the content is blocked at the drawer, but the handle, which overlaps the bottom of the
+ * content, must keep receiving its touches
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DrawerTouchTest {
+    private Drawer mDrawer;
+    private View mChild;
+
+    @Before
+    public void setUp() {
+        Context context = RuntimeEnvironment.application;
+        // The peeking part of the closed content lies inside the drawer, and so does the overlap with the handle
+        AttributeSet attrs = Robolectric.buildAttributeSet()
+                .addAttribute(R.attr.drawerPeek, "40px")
+                .addAttribute(R.attr.drawerHandleHeight, "48px")
+                .addAttribute(R.attr.drawerHandleWidth, "100px")
+                .build();
+        mDrawer = new Drawer(context, attrs);
+        mChild = new DrawerTestSupport.CountingView(context, 400);
+        mDrawer.addView(mChild, new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT));
+        DrawerTestSupport.layout(mDrawer);
+    }
+
+    @Test
+    public void handleOverlappingContentIsNotBlocked() {
+        assertEquals(Drawer.DrawerState.CLOSED, mDrawer.getDrawerState());
+        View handle = DrawerTestSupport.handle(mDrawer);
+        float handleTop = handle.getTop() + handle.getTranslationY();
+        float contentBottom = mChild.getBottom() + ((View) mChild.getParent()).getTranslationY();
+        assertTrue(handleTop >= 0 && handleTop < contentBottom);
+
+        assertFalse(intercepts(10, handleTop));
+        // Beside the handle, the same row still belongs to the blocked content
+        assertTrue(intercepts(handle.getRight() + 10, handleTop));
+    }
+
+    @Test
+    public void blockedContentIsIntercepted() {
+        View handle = DrawerTestSupport.handle(mDrawer);
+        assertTrue(intercepts(10, handle.getTop() + handle.getTranslationY() - 10));
+    }
+
+    // Robolectric's hit testing ignores view translation, so the drawer's own decision is checked directly
+    private boolean intercepts(float x, float y) {
+        MotionEvent down = MotionEvent.obtain(1000, 1000, MotionEvent.ACTION_DOWN, x, y, 0);
+        boolean intercepted = mDrawer.onInterceptTouchEvent(down);
+        down.recycle();
+        return intercepted;
+    }
+}
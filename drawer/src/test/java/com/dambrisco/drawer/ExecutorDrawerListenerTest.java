@@ -0,0 +1,76 @@
+package com.dambrisco.drawer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class ExecutorDrawerListenerTest {
+    private final ArrayList<String> mEvents = new ArrayList<String>();
+
+    @Test
+    public void directExecutorRunsCallbacksOutsideTheLock() {
+        final ExecutorDrawerListener[] listener = new ExecutorDrawerListener[1];
+        listener[0] = new ExecutorDrawerListener(new RecordingListener() {
+            @Override
+            public void onOpen() {
+                mEvents.add("open holds lock " + Thread.holdsLock(listener[0]));
+            }
+        }, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        });
+
+        listener[0].onOpen();
+        assertEquals(1, mEvents.size());
+        assertEquals("open holds lock false", mEvents.get(0));
+    }
+
+    @Test
+    public void rejectedEventDoesNotStallTheQueue() {
+        final boolean[] reject = { true };
+        ExecutorDrawerListener listener = new ExecutorDrawerListener(new RecordingListener(), new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                if (reject[0]) {
+                    throw new RejectedExecutionException();
+                }
+                command.run();
+            }
+        });
+
+        listener.onOpen();
+        assertFalse(mEvents.contains("open"));
+
+        reject[0] = false;
+        listener.onClose();
+        assertEquals(1, mEvents.size());
+        assertEquals("close", mEvents.get(0));
+    }
+
+    private class RecordingListener implements Drawer.DrawerListener {
+        @Override
+        public void onVisiblePercentChange(float percent) { }
+
+        @Override
+        public void onDrawerStateChanged(Drawer.DrawerState state) {
+            mEvents.add(state.toString());
+        }
+
+        @Override
+        public void onOpen() {
+            mEvents.add("open");
+        }
+
+        @Override
+        public void onClose() {
+            mEvents.add("close");
+        }
+    }
+}